@@ -1,8 +1,20 @@
 package behavioral;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.requireNonNull;
 
 /**
  * The chain of responsibility pattern is a behavioral design pattern that enables a request to be processed by
@@ -44,6 +56,10 @@ import java.util.Set;
  * }
  *
  * // Output: User is authorized!
+ *
+ * // for hot paths, the chain can be compiled once into a flat decision loop with identical results
+ * final var compiled = chain.compile();
+ * compiled.authorize(user); // true
  * }
  */
 public class ChainOfResponsibilityPattern {
@@ -61,14 +77,88 @@ public class ChainOfResponsibilityPattern {
         default boolean authorize(User user, Iterator<AuthorizationHandler> iterator) {
             return iterator.hasNext() && iterator.next().authorize(user, iterator);
         }
+
+        /**
+         * Returns a counter that increases whenever the data this handler decides on changes, so that cached
+         * decisions can be invalidated. Handlers whose data never changes keep the default of zero.
+         *
+         * @return the current generation of the handler's data.
+         */
+        default long generation() {
+            return 0;
+        }
     }
 
     /**
      * A concrete handler implementation that checks if a user is blacklisted.
+     * <p>
      *
-     * @param blacklist a list of blacklisted principals.
+     * The blacklist is indexed into an immutable hash set when the handler is created, so each check is a constant
+     * time lookup regardless of the blacklist size. An optional Bloom filter answers most checks for principals that
+     * are not blacklisted from a few bit tests on the principal's cached hash code, before the hash set is consulted.
+     * Since the set lookup also starts from that cached hash code, the filter only saves the set's bucket probe and
+     * {@code equals} call, which matters for large blacklists whose table no longer fits in cache; for small ones it
+     * is no faster than the set alone. The blacklist can be replaced
+     * atomically with {@link #reload(Collection)} while authorization continues: each check sees either the old or the
+     * new index, never a mix.
      */
-    record BlacklistHandler(List<String> blacklist) implements AuthorizationHandler {
+    static final class BlacklistHandler implements AuthorizationHandler {
+        /**
+         * An immutable snapshot of the blacklist and the structures built from it.
+         */
+        private record Index(long generation, List<String> entries, Set<String> principals, BloomFilter filter) {}
+
+        private final boolean useFilter;
+        private volatile Index index;
+
+        /**
+         * Creates a handler for the given blacklist, without a Bloom filter.
+         *
+         * @param blacklist a list of blacklisted principals.
+         */
+        BlacklistHandler(List<String> blacklist) {
+            this(blacklist, false);
+        }
+
+        /**
+         * Creates a handler for the given blacklist.
+         *
+         * @param blacklist a list of blacklisted principals.
+         * @param useFilter whether to check a Bloom filter before the hash set.
+         */
+        BlacklistHandler(Collection<String> blacklist, boolean useFilter) {
+            this.useFilter = useFilter;
+            this.index = index(0, blacklist);
+        }
+
+        /**
+         * Returns the current blacklist.
+         *
+         * @return an immutable list of blacklisted principals.
+         */
+        public List<String> blacklist() {
+            return index.entries();
+        }
+
+        /**
+         * Replaces the blacklist. The new index is built before it is swapped in, so checks are never paused.
+         *
+         * @param blacklist the new collection of blacklisted principals.
+         */
+        public synchronized void reload(Collection<String> blacklist) {
+            index = index(index.generation() + 1, blacklist);
+        }
+
+        /**
+         * Returns the number of times the blacklist has been reloaded.
+         *
+         * @return the current generation of the blacklist.
+         */
+        @Override
+        public long generation() {
+            return index.generation();
+        }
+
         /**
          * Checks if the user is not blacklisted.
          *
@@ -78,7 +168,133 @@ public class ChainOfResponsibilityPattern {
          */
         @Override
         public boolean authorize(User user, Iterator<AuthorizationHandler> iterator) {
-            return !blacklist.contains(user.principal()) && AuthorizationHandler.super.authorize(user, iterator);
+            return !blocks(user) && AuthorizationHandler.super.authorize(user, iterator);
+        }
+
+        /**
+         * Checks if the user is blacklisted.
+         *
+         * @param user the user to check.
+         * @return true if the user's principal is blacklisted.
+         */
+        boolean blocks(User user) {
+            return blocks(index, user.principal());
+        }
+
+        /**
+         * Checks a word of up to 64 users at once against a single snapshot of the blacklist.
+         *
+         * @param users      the users to check.
+         * @param base       the index of the user for bit zero of the word.
+         * @param candidates a mask of the users in the word to check.
+         * @return a mask of the checked users that are blacklisted.
+         */
+        long blocked(User[] users, int base, long candidates) {
+            final Index current = index;
+            long blocked = 0;
+            for (long remaining = candidates; remaining != 0; remaining &= remaining - 1) {
+                final int bit = Long.numberOfTrailingZeros(remaining);
+                if (blocks(current, users[base + bit].principal())) {
+                    blocked |= 1L << bit;
+                }
+            }
+            return blocked;
+        }
+
+        private static boolean blocks(Index index, String principal) {
+            return (index.filter() == null || index.filter().mightContain(principal))
+                    && index.principals().contains(principal);
+        }
+
+        private Index index(long generation, Collection<String> blacklist) {
+            final List<String> entries = List.copyOf(blacklist);
+            final Set<String> principals = Set.copyOf(entries);
+            BloomFilter filter = null;
+            if (useFilter) {
+                filter = new BloomFilter(principals.size(), 0.01);
+                principals.forEach(filter::add);
+            }
+            return new Index(generation, entries, principals, filter);
+        }
+
+        @Override
+        public String toString() {
+            return "BlacklistHandler[blacklist=" + blacklist() + "]";
+        }
+    }
+
+    /**
+     * A fixed-size Bloom filter of strings, answering "definitely absent" or "possibly present".
+     * <p>
+     *
+     * Bit positions are derived by double hashing from the two halves of a 64-bit mix of the string's hash code. As
+     * {@link String} caches its hash code, a check never rescans the characters. The bit array and number of hashes
+     * are sized for the expected number of entries and the desired false positive rate.
+     */
+    static final class BloomFilter {
+        private final long[] bits;
+        private final int bitCount;
+        private final int hashes;
+
+        /**
+         * Creates an empty filter.
+         *
+         * @param expected          the expected number of entries.
+         * @param falsePositiveRate the acceptable probability that an absent entry is reported as present.
+         */
+        BloomFilter(int expected, double falsePositiveRate) {
+            final double ln2 = Math.log(2);
+            final int entries = Math.max(1, expected);
+            final long optimalBits = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (ln2 * ln2));
+            this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBits));
+            this.bits = new long[(bitCount + 63) >>> 6];
+            this.hashes = Math.max(1, (int) Math.round((double) bitCount / entries * ln2));
+        }
+
+        /**
+         * Adds an entry to the filter.
+         *
+         * @param value the entry to add.
+         */
+        void add(String value) {
+            final long mixed = mix(value.hashCode());
+            final int first = (int) mixed;
+            final int second = (int) (mixed >>> 32) | 1;
+            for (int i = 0; i < hashes; i++) {
+                final int bit = Math.floorMod(first + i * second, bitCount);
+                bits[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        /**
+         * Checks whether an entry may have been added.
+         *
+         * @param value the entry to check.
+         * @return false if the entry was definitely never added.
+         */
+        boolean mightContain(String value) {
+            final long mixed = mix(value.hashCode());
+            final int first = (int) mixed;
+            final int second = (int) (mixed >>> 32) | 1;
+            for (int i = 0; i < hashes; i++) {
+                final int bit = Math.floorMod(first + i * second, bitCount);
+                if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Spreads a 32-bit hash code over 64 bits with the MurmurHash3 finalizer, so both halves depend on every bit.
+         */
+        private static long mix(int hashCode) {
+            long hash = hashCode * 0x9e3779b97f4a7c15L;
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            return hash ^ hash >>> 33;
         }
     }
 
@@ -97,7 +313,163 @@ public class ChainOfResponsibilityPattern {
          */
         @Override
         public boolean authorize(User user, Iterator<AuthorizationHandler> iterator) {
-            return permissions.containsAll(user.permissions()) || AuthorizationHandler.super.authorize(user, iterator);
+            return grants(user) || AuthorizationHandler.super.authorize(user, iterator);
+        }
+
+        /**
+         * Checks if every permission of the user is among the required permissions.
+         *
+         * @param user the user to check.
+         * @return true if this handler grants access on its own.
+         */
+        boolean grants(User user) {
+            return permissions.containsAll(user.permissions());
+        }
+    }
+
+    /**
+     * Interns permission names to dense integer ids so that permission sets can be stored as compact bitsets.
+     * <p>
+     *
+     * Ids are assigned on first sight and never change, so bitsets encoded at different times remain comparable. A
+     * bitset encoded before later permissions were interned is simply shorter and treated as having those bits clear.
+     */
+    static final class PermissionRegistry {
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private final AtomicInteger next = new AtomicInteger();
+
+        /**
+         * Returns the id of a permission, assigning the next free id if it has not been seen before.
+         *
+         * @param permission the permission name.
+         * @return the permission's id.
+         */
+        int intern(String permission) {
+            return ids.computeIfAbsent(permission, ignored -> next.getAndIncrement());
+        }
+
+        /**
+         * Returns the id of a permission without assigning one, for checks that must not grow the registry.
+         *
+         * @param permission the permission name.
+         * @return the permission's id, or -1 if it has never been interned.
+         */
+        int lookup(String permission) {
+            final Integer id = ids.get(permission);
+            return id == null ? -1 : id;
+        }
+
+        /**
+         * Encodes permission names as a bitset with the bit of each permission's id set.
+         *
+         * @param permissions the permission names.
+         * @return the bitset, one bit per interned permission.
+         */
+        long[] encode(Collection<String> permissions) {
+            long[] bits = new long[0];
+            for (String permission : permissions) {
+                final int id = intern(permission);
+                if (id >>> 6 >= bits.length) {
+                    bits = Arrays.copyOf(bits, (id >>> 6) + 1);
+                }
+                bits[id >>> 6] |= 1L << id;
+            }
+            return bits;
+        }
+
+        /**
+         * Converts a user into the bitset representation.
+         *
+         * @param user the user with permission names.
+         * @return the same user with an encoded permission bitset.
+         */
+        BitsetUser encode(User user) {
+            return new BitsetUser(user.principal(), encode(user.permissions()));
+        }
+
+        /**
+         * Converts a permission handler into the bitset representation.
+         *
+         * @param handler the handler with permission names.
+         * @return an equivalent handler that compares bitsets.
+         */
+        BitsetPermissionHandler encode(PermissionHandler handler) {
+            return new BitsetPermissionHandler(this, encode(handler.permissions()));
+        }
+    }
+
+    /**
+     * A user whose permissions are encoded as a bitset by a {@link PermissionRegistry}, typically at load time.
+     *
+     * @param principal   a principal string that uniquely identifies a user.
+     * @param permissions the bitset of the user's permission ids.
+     */
+    record BitsetUser(String principal, long[] permissions) {}
+
+    /**
+     * A permission handler that compares bitsets instead of sets of strings.
+     * <p>
+     *
+     * For a {@link BitsetUser}, {@link #grants(BitsetUser)} checks containment with one AND-NOT per 64 permissions and
+     * no hashing. The handler can also take part in a regular {@link Chain}, in which case each of the user's
+     * permission names is looked up in the registry on every call, which gives the same result but none of the
+     * speed-up. The lookup never interns: a name the registry has not seen cannot be a required permission.
+     */
+    static final class BitsetPermissionHandler implements AuthorizationHandler {
+        private final PermissionRegistry registry;
+        private final long[] permissions;
+
+        /**
+         * Creates a handler for an encoded set of required permissions.
+         *
+         * @param registry    the registry the permissions were encoded with.
+         * @param permissions the bitset of required permission ids.
+         */
+        BitsetPermissionHandler(PermissionRegistry registry, long[] permissions) {
+            this.registry = requireNonNull(registry);
+            this.permissions = permissions.clone();
+        }
+
+        /**
+         * Checks if the user has all required permissions, looking up the user's permission ids first.
+         *
+         * @param user     the user to authorize.
+         * @param iterator the iterator of remaining handlers in the chain.
+         * @return the result of the permission check or further checks.
+         */
+        @Override
+        public boolean authorize(User user, Iterator<AuthorizationHandler> iterator) {
+            return grants(user.permissions()) || AuthorizationHandler.super.authorize(user, iterator);
+        }
+
+        private boolean grants(Collection<String> granted) {
+            for (String permission : granted) {
+                final int id = registry.lookup(permission);
+                if (id < 0 || id >>> 6 >= permissions.length || (permissions[id >>> 6] & 1L << id) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Checks if every permission of an encoded user is among the required permissions.
+         *
+         * @param user the encoded user to check.
+         * @return true if this handler grants access on its own.
+         */
+        boolean grants(BitsetUser user) {
+            return grants(user.permissions());
+        }
+
+        private boolean grants(long[] granted) {
+            for (int i = 0; i < granted.length; i++) {
+                final long allowed = i < permissions.length ? permissions[i] : 0L;
+                if ((granted[i] & ~allowed) != 0) {
+                    return false;
+                }
+            }
+            return true;
         }
     }
 
@@ -114,7 +486,17 @@ public class ChainOfResponsibilityPattern {
          */
         @Override
         public boolean authorize(User user, Iterator<AuthorizationHandler> iterator) {
-            return user.principal().equals("admin") || AuthorizationHandler.super.authorize(user, iterator);
+            return grants(user) || AuthorizationHandler.super.authorize(user, iterator);
+        }
+
+        /**
+         * Checks if the user is the admin.
+         *
+         * @param user the user to check.
+         * @return true if this handler grants access on its own.
+         */
+        boolean grants(User user) {
+            return user.principal().equals("admin");
         }
     }
 
@@ -143,5 +525,315 @@ public class ChainOfResponsibilityPattern {
 
             return iterator.hasNext() && iterator.next().authorize(user, iterator);
         }
+
+        /**
+         * Compiles the handlers into a flat decision function that gives the same result as {@link #authorize(User)}.
+         *
+         * @return the compiled form of this chain.
+         */
+        public CompiledChain compile() {
+            return new CompiledChain(handlers);
+        }
+
+        /**
+         * Authorizes many users at once, evaluating them in parallel.
+         *
+         * @param users the users to authorize.
+         * @return a bit set with the bit of each authorized user's index set.
+         * @see CompiledChain#authorizeAll(List)
+         */
+        public BitSet authorizeAll(List<User> users) {
+            return compile().authorizeAll(users);
+        }
+
+        /**
+         * Returns a value that changes whenever the data of any handler in the chain changes.
+         *
+         * @return the sum of the generations of all handlers.
+         */
+        public long generation() {
+            long generation = 0;
+            for (AuthorizationHandler handler : handlers) {
+                generation += handler.generation();
+            }
+            return generation;
+        }
+    }
+
+    /**
+     * A bounded cache of authorization decisions in front of a {@link Chain}.
+     * <p>
+     *
+     * Decisions are keyed by the user's principal and an order-independent fingerprint of their permissions, so a
+     * repeat check is a single map lookup. The permissions are stored with the decision and compared as sets on a hit,
+     * matching how the chain treats them, so the same permissions in another order hit the same entry and a
+     * fingerprint collision causes a miss rather than a wrong answer. Each decision is stamped with the chain's
+     * generation and is ignored once any handler's data changes, for example after a blacklist reload, or once its
+     * time-to-live has passed. When the cache is full, entries are evicted in map iteration order, which is cheap and
+     * close enough to random for this purpose.
+     */
+    static final class AuthorizationCache {
+        /**
+         * The cache key of a user.
+         */
+        private record Key(String principal, long fingerprint) {}
+
+        /**
+         * A cached decision and the conditions under which it is still valid.
+         */
+        private record Decision(Set<String> permissions, boolean authorized, long generation, long expiresAt) {}
+
+        private final Chain chain;
+        private final int maxSize;
+        private final long ttlNanos;
+        private final Map<Key, Decision> decisions = new ConcurrentHashMap<>();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        /**
+         * Creates an empty cache.
+         *
+         * @param chain   the chain deciding on cache misses.
+         * @param maxSize the maximum number of cached decisions.
+         * @param ttl     how long a decision may be reused.
+         */
+        AuthorizationCache(Chain chain, int maxSize, Duration ttl) {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("maxSize must be positive");
+            }
+            this.chain = requireNonNull(chain);
+            this.maxSize = maxSize;
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        /**
+         * Returns the cached decision for the user, asking the chain if there is no valid cached decision.
+         *
+         * @param user the user to authorize.
+         * @return the result of the chain of authorization checks.
+         */
+        public boolean authorize(User user) {
+            final long generation = chain.generation();
+            final long now = System.nanoTime();
+            final Key key = new Key(user.principal(), fingerprint(user.permissions()));
+
+            final Decision cached = decisions.get(key);
+            if (cached != null && cached.generation() == generation && now - cached.expiresAt() < 0
+                    && samePermissions(cached.permissions(), user.permissions())) {
+                hits.increment();
+                return cached.authorized();
+            }
+
+            misses.increment();
+            final boolean authorized = chain.authorize(user);
+            if (cached == null && decisions.size() >= maxSize) {
+                evict();
+            }
+            decisions.put(key, new Decision(Set.copyOf(user.permissions()), authorized, generation, now + ttlNanos));
+            return authorized;
+        }
+
+        /**
+         * Discards all cached decisions.
+         */
+        public void invalidateAll() {
+            decisions.clear();
+        }
+
+        /**
+         * Returns the number of checks answered from the cache.
+         *
+         * @return the number of hits.
+         */
+        public long hitCount() {
+            return hits.sum();
+        }
+
+        /**
+         * Returns the number of checks that had to run the chain.
+         *
+         * @return the number of misses.
+         */
+        public long missCount() {
+            return misses.sum();
+        }
+
+        /**
+         * Removes roughly a tenth of the entries to make room.
+         */
+        private void evict() {
+            int toRemove = Math.max(1, maxSize / 10);
+            final Iterator<Key> keys = decisions.keySet().iterator();
+            while (toRemove-- > 0 && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+
+        /**
+         * Compares a cached permission set with a user's permission list as sets, without allocating. The reverse
+         * check scans the list, which is cheap for the handful of permissions a user holds.
+         */
+        private static boolean samePermissions(Set<String> cached, List<String> permissions) {
+            if (!cached.containsAll(permissions)) {
+                return false;
+            }
+            for (String permission : cached) {
+                if (!permissions.contains(permission)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long fingerprint(List<String> permissions) {
+            long fingerprint = 0;
+            for (String permission : permissions) {
+                long hash = permission.hashCode() * 0x9e3779b97f4a7c15L;
+                hash ^= hash >>> 32;
+                fingerprint += hash;
+            }
+            return fingerprint;
+        }
+    }
+
+    /**
+     * A chain of handlers flattened into a single loop over an array of steps.
+     * <p>
+     *
+     * The built-in handlers each become one step: a blacklist check denies on a match and otherwise continues, while
+     * the admin and permission checks grant on a match and otherwise continue. Running off the end denies, as in
+     * {@link Chain}. Each step is selected with a switch on a small opcode and calls a final record method, so no
+     * iterator is allocated, nothing recurses and there is no megamorphic interface dispatch. Any other handler is
+     * handed the remainder of the chain through the regular iterator protocol, which keeps results identical for
+     * custom handlers too.
+     */
+    static final class CompiledChain {
+        private static final byte BLACKLIST = 0;
+        private static final byte PERMISSION = 1;
+        private static final byte ADMIN = 2;
+        private static final byte DELEGATE = 3;
+
+        private final byte[] opcodes;
+        private final AuthorizationHandler[] steps;
+        private final List<List<AuthorizationHandler>> remainders;
+
+        /**
+         * Compiles the given handlers, in order.
+         * <p>
+         *
+         * Only delegated steps need the rest of the chain, which they get as a view over one shared copy of the
+         * handlers, so compiling takes linear space however many custom handlers there are.
+         *
+         * @param handlers the handlers of the chain.
+         */
+        CompiledChain(List<AuthorizationHandler> handlers) {
+            final List<AuthorizationHandler> chain = List.copyOf(handlers);
+            this.steps = chain.toArray(AuthorizationHandler[]::new);
+            this.opcodes = new byte[steps.length];
+            this.remainders = new ArrayList<>(steps.length);
+
+            for (int i = 0; i < steps.length; i++) {
+                final AuthorizationHandler handler = steps[i];
+                if (handler instanceof BlacklistHandler) {
+                    opcodes[i] = BLACKLIST;
+                } else if (handler instanceof PermissionHandler) {
+                    opcodes[i] = PERMISSION;
+                } else if (handler instanceof AdminHandler) {
+                    opcodes[i] = ADMIN;
+                } else {
+                    opcodes[i] = DELEGATE;
+                }
+                remainders.add(opcodes[i] == DELEGATE ? chain.subList(i + 1, steps.length) : null);
+            }
+        }
+
+        /**
+         * Runs the compiled authorization checks.
+         *
+         * @param user the user to authorize.
+         * @return the same result {@link Chain#authorize(User)} gives for the same handlers.
+         */
+        public boolean authorize(User user) {
+            for (int i = 0; i < steps.length; i++) {
+                switch (opcodes[i]) {
+                    case BLACKLIST -> {
+                        if (((BlacklistHandler) steps[i]).blocks(user)) {
+                            return false;
+                        }
+                    }
+                    case PERMISSION -> {
+                        if (((PermissionHandler) steps[i]).grants(user)) {
+                            return true;
+                        }
+                    }
+                    case ADMIN -> {
+                        if (((AdminHandler) steps[i]).grants(user)) {
+                            return true;
+                        }
+                    }
+                    default -> {
+                        return steps[i].authorize(user, remainders.get(i).iterator());
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Authorizes many users at once, giving the same decisions as calling {@link #authorize(User)} for each.
+         * <p>
+         *
+         * Users are split into words of 64, which are evaluated in parallel across cores. Within a word, each step is
+         * applied to all still undecided users before moving to the next step, tracking the outcome as bit masks. This
+         * lets a handler process a whole word against a single snapshot of its data, as the blacklist does.
+         *
+         * @param users the users to authorize.
+         * @return a bit set with the bit of each authorized user's index set.
+         */
+        public BitSet authorizeAll(List<User> users) {
+            final User[] batch = users.toArray(User[]::new);
+            final long[] words = new long[(batch.length + 63) >>> 6];
+            IntStream.range(0, words.length).parallel().forEach(word -> words[word] = authorizeWord(batch, word));
+            return BitSet.valueOf(words);
+        }
+
+        private long authorizeWord(User[] users, int word) {
+            final int base = word << 6;
+            final int count = Math.min(64, users.length - base);
+            long undecided = count == 64 ? -1L : (1L << count) - 1;
+            long granted = 0;
+
+            for (int i = 0; i < steps.length && undecided != 0; i++) {
+                switch (opcodes[i]) {
+                    case BLACKLIST -> undecided &= ~((BlacklistHandler) steps[i]).blocked(users, base, undecided);
+                    case PERMISSION, ADMIN -> {
+                        long matched = 0;
+                        for (long remaining = undecided; remaining != 0; remaining &= remaining - 1) {
+                            final int bit = Long.numberOfTrailingZeros(remaining);
+                            final User user = users[base + bit];
+                            final boolean grants = opcodes[i] == PERMISSION
+                                    ? ((PermissionHandler) steps[i]).grants(user)
+                                    : ((AdminHandler) steps[i]).grants(user);
+                            if (grants) {
+                                matched |= 1L << bit;
+                            }
+                        }
+                        granted |= matched;
+                        undecided &= ~matched;
+                    }
+                    default -> {
+                        for (long remaining = undecided; remaining != 0; remaining &= remaining - 1) {
+                            final int bit = Long.numberOfTrailingZeros(remaining);
+                            if (steps[i].authorize(users[base + bit], remainders.get(i).iterator())) {
+                                granted |= 1L << bit;
+                            }
+                        }
+                        undecided = 0;
+                    }
+                }
+            }
+            return granted;
+        }
     }
 }
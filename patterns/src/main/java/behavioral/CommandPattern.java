@@ -1,7 +1,41 @@
 package behavioral;
 
-import java.util.ArrayDeque;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import static java.util.Objects.requireNonNull;
 
 /**
  * The command pattern is a behavioral design pattern that encapsulates a request as an object. This pattern allows
@@ -33,6 +67,13 @@ import java.util.List;
  *
  * contacts.forEach(contact -> notifier.queue(contact, "Hello, this is a test message."));
  * notifier.dispatch();
+ *
+ * // queued commands can be journaled to disk so they survive a crash and are replayed on restart
+ * try (final var journal = CommandJournal.open(Path.of("notifier.journal"), 10_000)) {
+ *     final var durable = new ApplicationNotifier(journal);
+ *     contacts.forEach(contact -> durable.queue(contact, "Hello, this is a test message."));
+ *     durable.dispatch();
+ * }
  * }
  */
 public class CommandPattern {
@@ -65,6 +106,24 @@ public class CommandPattern {
         }
     }
 
+    /**
+     * A command recorded in a {@link CommandJournal}, which is acknowledged there once it no longer needs to run.
+     *
+     * @param sequence the sequence number of the command in the journal.
+     * @param command the command to execute.
+     */
+    record JournaledCommand(long sequence, Command command) implements Command {
+        /**
+         * Executes the journaled command.
+         *
+         * @throws Exception if the command execution fails.
+         */
+        @Override
+        public void execute() throws Exception {
+            command.execute();
+        }
+    }
+
     /**
      * A command that sends an SMS to a contact.
      *
@@ -111,6 +170,14 @@ public class CommandPattern {
      */
     record Contact(String email, String phone) {}
 
+    /**
+     * A single message to a contact within a batch submission.
+     *
+     * @param contact the contact to send the message to.
+     * @param message the body of the message.
+     */
+    record Notification(Contact contact, String message) {}
+
     /**
      * A message dispatcher that functions as the receiver of the command behavior.
      */
@@ -136,50 +203,994 @@ public class CommandPattern {
         public void dispatchEmail(Contact contact, String message) throws Exception{
             System.out.printf("Sent email to %s: %s%n", contact.email, message);
         }
+
+        /**
+         * Returns whether this dispatcher sends a list of messages in a single submission. Only then does
+         * {@link ApplicationNotifier} coalesce commands into batches; otherwise every message is sent separately, so
+         * that messages still go out in parallel up to the channel's concurrency limit.
+         *
+         * @return false here; a provider that overrides the list methods with a real bulk API returns true.
+         */
+        public boolean supportsBatches() {
+            return false;
+        }
+
+        /**
+         * Sends an SMS to each of several contacts in a single submission.
+         * <p>
+         *
+         * This implementation sends them one at a time; a provider that accepts bulk submissions overrides it to send
+         * them together.
+         *
+         * @param notifications the SMS messages to send.
+         * @return the positions of the messages that could not be sent.
+         * @throws Exception if the submission as a whole fails.
+         */
+        public BitSet dispatchSMS(List<Notification> notifications) throws Exception {
+            final BitSet failed = new BitSet(notifications.size());
+            for (int i = 0; i < notifications.size(); i++) {
+                try {
+                    dispatchSMS(notifications.get(i).contact(), notifications.get(i).message());
+                } catch (Exception ex) {
+                    failed.set(i);
+                }
+            }
+            return failed;
+        }
+
+        /**
+         * Sends an email to each of several contacts in a single submission.
+         * <p>
+         *
+         * This implementation sends them one at a time; a provider that accepts bulk submissions overrides it to send
+         * them together.
+         *
+         * @param notifications the email messages to send.
+         * @return the positions of the messages that could not be sent.
+         * @throws Exception if the submission as a whole fails.
+         */
+        public BitSet dispatchEmail(List<Notification> notifications) throws Exception {
+            final BitSet failed = new BitSet(notifications.size());
+            for (int i = 0; i < notifications.size(); i++) {
+                try {
+                    dispatchEmail(notifications.get(i).contact(), notifications.get(i).message());
+                } catch (Exception ex) {
+                    failed.set(i);
+                }
+            }
+            return failed;
+        }
     }
 
     /**
      * A queued application notifier functioning as the sender of the commands.
+     * <p>
+     *
+     * Commands can be queued from any number of threads. Dispatching runs each command on its own virtual thread, with
+     * separate limits on how many SMS and email commands run at once, so a slow provider on one channel does not hold
+     * up the other. A failed command is retried after an exponentially growing, jittered delay; waiting retries sit
+     * in a {@link TimerWheel} that the dispatching thread advances, so they hold no thread of their own.
+     * <p>
+     *
+     * When a command's {@link MessageDispatcher} supports bulk submissions, SMS and email commands are coalesced per
+     * channel into batches, each sent in one submission that takes a single concurrency permit. Within a batch, only
+     * the messages reported as failed are retried.
      */
     class ApplicationNotifier {
+        private static final int DEFAULT_CONCURRENCY = 8;
+        private static final ThreadFactory VIRTUAL_THREADS = Thread.ofVirtual().name("notifier-", 0).factory();
+        private static final Duration RETRY_TICK = Duration.ofMillis(10);
+        private static final int RETRY_WHEEL_SIZE = 512;
+
+        private final MessageDispatcher sender;
+        private final Queue<Command> queue = new ConcurrentLinkedQueue<>();
+        private final CommandJournal journal;
+        private final Semaphore smsPermits;
+        private final Semaphore emailPermits;
+        private final Backoff backoff;
+        private final Batching batching;
+        private final TimerWheel<Command> retryWheel = new TimerWheel<>(RETRY_TICK, RETRY_WHEEL_SIZE);
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Object progress = new Object();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        /**
+         * Creates a notifier that keeps queued commands in memory only.
+         */
+        ApplicationNotifier() {
+            this(null, DEFAULT_CONCURRENCY, DEFAULT_CONCURRENCY);
+        }
 
-        private final MessageDispatcher sender = new MessageDispatcher();
-        private final ArrayDeque<Command> queue = new ArrayDeque<>();
+        /**
+         * Creates a notifier that records queued commands in a journal.
+         *
+         * @param journal the journal to record commands in.
+         */
+        ApplicationNotifier(CommandJournal journal) {
+            this(requireNonNull(journal), DEFAULT_CONCURRENCY, DEFAULT_CONCURRENCY);
+        }
+
+        /**
+         * Creates a notifier with the given per-channel concurrency limits.
+         * <p>
+         *
+         * With a journal, every command the journal holds that was never acknowledged, such as those pending when the
+         * application last stopped, is queued again first.
+         *
+         * @param journal the journal to record commands in, or null to keep commands in memory only.
+         * @param smsConcurrency the maximum number of SMS commands running at once.
+         * @param emailConcurrency the maximum number of email commands running at once.
+         */
+        ApplicationNotifier(CommandJournal journal, int smsConcurrency, int emailConcurrency) {
+            this(journal, smsConcurrency, emailConcurrency, Backoff.DEFAULT);
+        }
+
+        /**
+         * Creates a notifier with the given per-channel concurrency limits and retry backoff.
+         *
+         * @param journal the journal to record commands in, or null to keep commands in memory only.
+         * @param smsConcurrency the maximum number of SMS commands running at once.
+         * @param emailConcurrency the maximum number of email commands running at once.
+         * @param backoff the delay before each retry of a failed command.
+         */
+        ApplicationNotifier(CommandJournal journal, int smsConcurrency, int emailConcurrency, Backoff backoff) {
+            this(journal, smsConcurrency, emailConcurrency, backoff, Batching.DEFAULT);
+        }
+
+        /**
+         * Creates a notifier with the given per-channel concurrency limits, retry backoff and batching.
+         *
+         * @param journal the journal to record commands in, or null to keep commands in memory only.
+         * @param smsConcurrency the maximum number of SMS commands or batches being sent at once.
+         * @param emailConcurrency the maximum number of email commands or batches being sent at once.
+         * @param backoff the delay before each retry of a failed command.
+         * @param batching when to send the commands gathered for a channel.
+         */
+        ApplicationNotifier(CommandJournal journal, int smsConcurrency, int emailConcurrency, Backoff backoff,
+                            Batching batching) {
+            this(new MessageDispatcher(), journal, smsConcurrency, emailConcurrency, backoff, batching);
+        }
+
+        /**
+         * Creates a notifier that sends through the given message dispatcher.
+         * <p>
+         *
+         * Commands are only coalesced into batches when the dispatcher {@link MessageDispatcher#supportsBatches()
+         * supports bulk submissions}.
+         *
+         * @param sender the message dispatcher that sends every queued and replayed command.
+         * @param journal the journal to record commands in, or null to keep commands in memory only.
+         * @param smsConcurrency the maximum number of SMS commands or batches being sent at once.
+         * @param emailConcurrency the maximum number of email commands or batches being sent at once.
+         * @param backoff the delay before each retry of a failed command.
+         * @param batching when to send the commands gathered for a channel.
+         */
+        ApplicationNotifier(MessageDispatcher sender, CommandJournal journal, int smsConcurrency,
+                            int emailConcurrency, Backoff backoff, Batching batching) {
+            if (smsConcurrency <= 0 || emailConcurrency <= 0) {
+                throw new IllegalArgumentException("concurrency limits must be positive");
+            }
+
+            this.sender = requireNonNull(sender);
+            this.journal = journal;
+            this.backoff = requireNonNull(backoff);
+            this.batching = requireNonNull(batching);
+            this.smsPermits = new Semaphore(smsConcurrency, true);
+            this.emailPermits = new Semaphore(emailConcurrency, true);
+            if (journal != null) {
+                journal.pending().forEach(entry -> queue.add(toCommand(entry)));
+            }
+        }
 
         /**
          * Queues a set of commands to send an SMS and an email message to the contact.
+         * <p>
+         *
+         * With a journal, both commands are durably recorded before this method returns. Concurrent callers share a
+         * single flush to disk, so the cost of syncing is spread over all commands queued at the same time.
          *
          * @param contact the contact to send the message to.
          * @param message the message to include in the message.
+         * @throws UncheckedIOException if the commands could not be recorded in the journal.
          */
         public void queue(Contact contact, String message) {
-            queue.add(new SendSmsCommand(sender, contact, message));
-            queue.add(new SendEmailCommand(sender, contact, message));
+            if (journal == null) {
+                queue.add(new SendSmsCommand(sender, contact, message));
+                queue.add(new SendEmailCommand(sender, contact, message));
+            } else {
+                try {
+                    final var sms = journal.append(CommandJournal.Channel.SMS, contact, message);
+                    final var email = journal.append(CommandJournal.Channel.EMAIL, contact, message);
+                    journal.sync();
+                    queue.add(toCommand(sms));
+                    queue.add(toCommand(email));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            signal();
         }
 
         /**
-         * Dispatches all queued commands, retrying failed commands up to 3 times.
+         * Marks a command as done in the journal, whether it succeeded or was given up on.
+         * <p>
+         *
+         * Acknowledgments are not flushed individually. If one is lost in a crash, the command is replayed and sent
+         * again, so delivery is at least once.
+         *
+         * @param command the command that no longer needs to run.
          */
-        public void dispatch() {
-            while (!queue.isEmpty()) {
-                final var command = queue.poll();
+        private void acknowledge(Command command) {
+            if (journal == null) {
+                return;
+            }
 
+            Command current = command;
+            while (current instanceof RetryCommand retry) {
+                current = retry.command();
+            }
+            if (current instanceof JournaledCommand journaled) {
                 try {
-                    command.execute();
-                } catch (Exception ex) {
-                    if (command instanceof RetryCommand retry && retry.count >= 3) {
-                        System.out.printf("Command failed after 3 attempts: %s%n", command);
+                    journal.acknowledge(journaled.sequence());
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        }
+
+        private Command toCommand(CommandJournal.Entry entry) {
+            final Command command = switch (entry.channel()) {
+                case SMS -> new SendSmsCommand(sender, entry.contact(), entry.message());
+                case EMAIL -> new SendEmailCommand(sender, entry.contact(), entry.message());
+            };
+            return new JournaledCommand(entry.sequence(), command);
+        }
+
+        /**
+         * Dispatches all queued commands concurrently, retrying failed commands up to 3 times, and returns once the
+         * queue is empty, no batch is gathering, no command is running and no retry is waiting.
+         */
+        public void dispatch() {
+            final Map<CommandJournal.Channel, List<Command>> batches = new EnumMap<>(CommandJournal.Channel.class);
+            final Map<CommandJournal.Channel, Long> deadlines = new EnumMap<>(CommandJournal.Channel.class);
+            while (true) {
+                retryWheel.advance(System.nanoTime(), queue::add);
+                final var command = queue.poll();
+                if (command != null) {
+                    final CommandJournal.Channel channel = channelOf(command);
+                    if (channel == null || !senderOf(unwrap(command)).supportsBatches()) {
+                        start(() -> run(command));
                         continue;
                     }
 
-                    System.out.printf("Retrying command: %s%n", command);
-                    if (command instanceof RetryCommand(int count, Command task)) {
-                        queue.add(new RetryCommand(count + 1, task));
+                    final List<Command> batch = batches.computeIfAbsent(channel, key -> {
+                        deadlines.put(key, System.nanoTime() + batching.maxDelay().toNanos());
+                        return new ArrayList<>();
+                    });
+                    batch.add(command);
+                    if (batch.size() >= batching.maxSize()) {
+                        flush(channel, batches, deadlines);
+                    }
+                    continue;
+                }
+
+                long waitNanos = Long.MAX_VALUE;
+                final long now = System.nanoTime();
+                for (final var channel : CommandJournal.Channel.values()) {
+                    final Long deadline = deadlines.get(channel);
+                    if (deadline == null) {
+                        continue;
+                    }
+                    if (deadline - now <= 0) {
+                        flush(channel, batches, deadlines);
                     } else {
-                        queue.add(new RetryCommand(1, command));
+                        waitNanos = Math.min(waitNanos, deadline - now);
+                    }
+                }
+
+                synchronized (progress) {
+                    if (!queue.isEmpty()) {
+                        continue;
+                    }
+                    if (batches.isEmpty() && inFlight.get() == 0 && retryWheel.isEmpty()) {
+                        return;
+                    }
+                    if (!retryWheel.isEmpty()) {
+                        waitNanos = Math.min(waitNanos, retryWheel.nanosUntilNextTick(System.nanoTime()));
+                    }
+                    try {
+                        if (waitNanos == Long.MAX_VALUE) {
+                            progress.wait();
+                        } else {
+                            TimeUnit.NANOSECONDS.timedWait(progress, waitNanos);
+                        }
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        batches.values().forEach(queue::addAll);
+                        return;
                     }
                 }
             }
         }
+
+        /**
+         * Starts sending the commands gathered for a channel as one batch.
+         */
+        private void flush(CommandJournal.Channel channel, Map<CommandJournal.Channel, List<Command>> batches,
+                           Map<CommandJournal.Channel, Long> deadlines) {
+            final List<Command> batch = batches.remove(channel);
+            deadlines.remove(channel);
+            start(() -> send(channel, batch));
+        }
+
+        /**
+         * Runs a task on its own virtual thread, counting it as in flight until it finishes.
+         */
+        private void start(Runnable task) {
+            inFlight.incrementAndGet();
+            VIRTUAL_THREADS.newThread(() -> {
+                try {
+                    task.run();
+                } finally {
+                    inFlight.decrementAndGet();
+                    signal();
+                }
+            }).start();
+        }
+
+        /**
+         * Wakes the dispatching thread to look for new work.
+         */
+        private void signal() {
+            synchronized (progress) {
+                progress.notifyAll();
+            }
+        }
+
+        /**
+         * Runs a single command within its channel's concurrency limit, queueing a retry if it fails.
+         *
+         * @param command the command to run.
+         */
+        private void run(Command command) {
+            final CommandJournal.Channel channel = channelOf(command);
+            final Semaphore permits = channel == null ? null : permitsFor(channel);
+            if (permits != null) {
+                permits.acquireUninterruptibly();
+            }
+            try {
+                command.execute();
+                acknowledge(command);
+            } catch (Exception ex) {
+                retry(command);
+            } finally {
+                if (permits != null) {
+                    permits.release();
+                }
+            }
+        }
+
+        /**
+         * Sends a batch of commands for a channel within the channel's concurrency limit, in one submission per
+         * message dispatcher, and retries each message that failed on its own.
+         *
+         * @param channel the channel all of the commands send over.
+         * @param batch the commands to send.
+         */
+        private void send(CommandJournal.Channel channel, List<Command> batch) {
+            final Semaphore permits = permitsFor(channel);
+            final Map<MessageDispatcher, List<Command>> bySender = new IdentityHashMap<>();
+            for (final Command command : batch) {
+                bySender.computeIfAbsent(senderOf(unwrap(command)), key -> new ArrayList<>()).add(command);
+            }
+
+            permits.acquireUninterruptibly();
+            try {
+                bySender.forEach((dispatcher, commands) -> {
+                    final List<Notification> notifications = commands.stream()
+                            .map(command -> notificationOf(unwrap(command)))
+                            .toList();
+                    BitSet failed;
+                    try {
+                        failed = channel == CommandJournal.Channel.SMS
+                                ? dispatcher.dispatchSMS(notifications)
+                                : dispatcher.dispatchEmail(notifications);
+                    } catch (Exception ex) {
+                        failed = new BitSet(commands.size());
+                        failed.set(0, commands.size());
+                    }
+
+                    for (int i = 0; i < commands.size(); i++) {
+                        if (failed.get(i)) {
+                            retry(commands.get(i));
+                            continue;
+                        }
+                        try {
+                            acknowledge(commands.get(i));
+                        } catch (UncheckedIOException ex) {
+                            retry(commands.get(i));
+                        }
+                    }
+                });
+            } finally {
+                permits.release();
+            }
+        }
+
+        /**
+         * Schedules a failed command to run again after a backoff delay, or gives up on it after 3 retries.
+         *
+         * @param command the command that failed.
+         */
+        private void retry(Command command) {
+            if (command instanceof RetryCommand retry && retry.count >= 3) {
+                System.out.printf("Command failed after 3 attempts: %s%n", command);
+                failures.increment();
+                acknowledge(command);
+                return;
+            }
+
+            System.out.printf("Retrying command: %s%n", command);
+            final RetryCommand retry;
+            if (command instanceof RetryCommand(int count, Command task)) {
+                retry = new RetryCommand(count + 1, task);
+            } else {
+                retry = new RetryCommand(1, command);
+            }
+            retries.increment();
+            retryWheel.schedule(retry, backoff.delayNanos(retry.count()));
+        }
+
+        /**
+         * Returns the channel the command sends over, or null if it is not an SMS or email command.
+         */
+        private CommandJournal.Channel channelOf(Command command) {
+            final Command task = unwrap(command);
+            if (task instanceof SendSmsCommand) {
+                return CommandJournal.Channel.SMS;
+            }
+            if (task instanceof SendEmailCommand) {
+                return CommandJournal.Channel.EMAIL;
+            }
+            return null;
+        }
+
+        /**
+         * Returns the concurrency limit of a channel.
+         */
+        private Semaphore permitsFor(CommandJournal.Channel channel) {
+            return channel == CommandJournal.Channel.SMS ? smsPermits : emailPermits;
+        }
+
+        /**
+         * Returns the message dispatcher of an unwrapped SMS or email command.
+         */
+        private MessageDispatcher senderOf(Command task) {
+            return task instanceof SendSmsCommand sms ? sms.sender() : ((SendEmailCommand) task).sender();
+        }
+
+        /**
+         * Returns the message of an unwrapped SMS or email command.
+         */
+        private Notification notificationOf(Command task) {
+            if (task instanceof SendSmsCommand sms) {
+                return new Notification(sms.contact(), sms.message());
+            }
+            final SendEmailCommand email = (SendEmailCommand) task;
+            return new Notification(email.contact(), email.message());
+        }
+
+        /**
+         * Returns the number of retries scheduled so far.
+         *
+         * @return the number of retries.
+         */
+        public long retries() {
+            return retries.sum();
+        }
+
+        /**
+         * Returns the number of commands given up on after their last retry failed.
+         *
+         * @return the number of final failures.
+         */
+        public long failures() {
+            return failures.sum();
+        }
+
+        /**
+         * Strips retry and journal wrappers from a command.
+         */
+        private Command unwrap(Command command) {
+            Command current = command;
+            while (true) {
+                if (current instanceof RetryCommand retry) {
+                    current = retry.command();
+                } else if (current instanceof JournaledCommand journaled) {
+                    current = journaled.command();
+                } else {
+                    return current;
+                }
+            }
+        }
+    }
+
+    /**
+     * An exponential backoff with jitter, giving the delay before each retry of a failed command.
+     * <p>
+     *
+     * The delay before retry {@code n} is {@code initial * multiplier^(n - 1)}, capped at {@code max}, and then reduced
+     * by a random fraction of up to {@code jitter} of itself, so that commands failing together do not all retry at
+     * the same instant.
+     *
+     * @param initial the delay before the first retry.
+     * @param max the longest delay before any retry.
+     * @param multiplier the factor the delay grows by with each retry.
+     * @param jitter the largest fraction of the delay removed at random, between 0 and 1.
+     */
+    record Backoff(Duration initial, Duration max, double multiplier, double jitter) {
+        static final Backoff DEFAULT = new Backoff(Duration.ofMillis(100), Duration.ofSeconds(5), 2.0, 0.5);
+
+        Backoff {
+            requireNonNull(initial);
+            requireNonNull(max);
+            if (initial.isNegative() || max.compareTo(initial) < 0) {
+                throw new IllegalArgumentException("delays must satisfy 0 <= initial <= max");
+            }
+            if (multiplier < 1.0) {
+                throw new IllegalArgumentException("multiplier must be at least 1");
+            }
+            if (jitter < 0.0 || jitter > 1.0) {
+                throw new IllegalArgumentException("jitter must be between 0 and 1");
+            }
+        }
+
+        /**
+         * Returns the delay before the given retry, in nanoseconds.
+         *
+         * @param attempt the retry number, starting at 1.
+         * @return the jittered delay.
+         */
+        long delayNanos(int attempt) {
+            final double base = Math.min(
+                    initial.toNanos() * Math.pow(multiplier, Math.max(0, attempt - 1)), max.toNanos());
+            return (long) (base * (1.0 - jitter * ThreadLocalRandom.current().nextDouble()));
+        }
+    }
+
+    /**
+     * When the commands gathered for a channel are sent as a batch.
+     * <p>
+     *
+     * A batch is sent as soon as it holds {@code maxSize} commands, or once {@code maxDelay} has passed since its first
+     * command was gathered and no further commands are queued. With no delay, whatever is queued at the moment is
+     * sent together without waiting for more.
+     *
+     * @param maxSize the largest number of commands in a batch.
+     * @param maxDelay the longest time a command waits for its batch to fill.
+     */
+    record Batching(int maxSize, Duration maxDelay) {
+        static final Batching DEFAULT = new Batching(100, Duration.ZERO);
+
+        Batching {
+            requireNonNull(maxDelay);
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("batch size must be positive");
+            }
+            if (maxDelay.isNegative()) {
+                throw new IllegalArgumentException("batch delay must not be negative");
+            }
+        }
+    }
+
+    /**
+     * A hashed timer wheel holding items until their deadline passes.
+     * <p>
+     *
+     * Time is divided into ticks, and each item is hashed by its deadline tick into one of a fixed number of buckets,
+     * so scheduling is constant time regardless of how many items are waiting. The wheel has no thread of its own:
+     * its owner calls {@link #advance(long, Consumer)}, which visits the buckets of every tick that has passed and
+     * hands over the items that are due. Items whose deadline lies one or more turns of the wheel ahead share a bucket
+     * with nearer ones and are simply left in place until their tick comes round.
+     *
+     * @param <T> the type of the items.
+     */
+    static final class TimerWheel<T> {
+        private record Timeout<T>(T item, long deadlineTick) {}
+
+        private final long tickNanos;
+        private final long startNanos = System.nanoTime();
+        private final List<Timeout<T>>[] buckets;
+        private final int mask;
+        private long tick;
+        private int size;
+
+        /**
+         * Creates a timer wheel.
+         *
+         * @param tick the length of a tick, which bounds how late an item may be handed over.
+         * @param wheelSize the number of buckets, rounded up to a power of two.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        TimerWheel(Duration tick, int wheelSize) {
+            if (tick.isNegative() || tick.isZero()) {
+                throw new IllegalArgumentException("tick must be positive");
+            }
+            if (wheelSize <= 0 || wheelSize > 1 << 20) {
+                throw new IllegalArgumentException("wheel size must be between 1 and 2^20");
+            }
+
+            this.tickNanos = tick.toNanos();
+            final int buckets = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+            this.buckets = new List[buckets];
+            for (int i = 0; i < buckets; i++) {
+                this.buckets[i] = new ArrayList<>();
+            }
+            this.mask = buckets - 1;
+        }
+
+        /**
+         * Schedules an item to be handed over once the delay has passed.
+         *
+         * @param item the item to schedule.
+         * @param delayNanos the delay in nanoseconds.
+         */
+        synchronized void schedule(T item, long delayNanos) {
+            requireNonNull(item);
+            final long now = System.nanoTime() - startNanos;
+            if (size == 0) {
+                // Nothing to visit in between, so skip the ticks that passed while the wheel sat empty.
+                tick = Math.max(tick, now / tickNanos);
+            }
+            final long elapsed = now + Math.max(0, delayNanos);
+            final long deadlineTick = Math.max(tick, (elapsed + tickNanos - 1) / tickNanos);
+            buckets[(int) (deadlineTick & mask)].add(new Timeout<>(item, deadlineTick));
+            size++;
+        }
+
+        /**
+         * Hands every item whose deadline has passed to the consumer, outside of the wheel's lock.
+         *
+         * @param nowNanos the current {@link System#nanoTime()}.
+         * @param expired the consumer to receive the due items.
+         */
+        void advance(long nowNanos, Consumer<? super T> expired) {
+            final List<T> due = new ArrayList<>();
+            synchronized (this) {
+                final long target = (nowNanos - startNanos) / tickNanos;
+                while (tick <= target) {
+                    if (size == 0) {
+                        tick = target + 1;
+                        break;
+                    }
+
+                    final Iterator<Timeout<T>> timeouts = buckets[(int) (tick & mask)].iterator();
+                    while (timeouts.hasNext()) {
+                        final Timeout<T> timeout = timeouts.next();
+                        if (timeout.deadlineTick() <= tick) {
+                            due.add(timeout.item());
+                            timeouts.remove();
+                            size--;
+                        }
+                    }
+                    tick++;
+                }
+            }
+            due.forEach(expired);
+        }
+
+        /**
+         * Returns how long until the next tick is due.
+         *
+         * @param nowNanos the current {@link System#nanoTime()}.
+         * @return the time until the next tick in nanoseconds, or 0 if it is already due.
+         */
+        synchronized long nanosUntilNextTick(long nowNanos) {
+            return Math.max(0, startNanos + tick * tickNanos - nowNanos);
+        }
+
+        /**
+         * Returns whether no item is waiting.
+         *
+         * @return true if the wheel holds no items.
+         */
+        synchronized boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    /**
+     * An append-only, write-ahead journal of queued notifications, so that pending commands survive a restart.
+     * <p>
+     *
+     * Each notification is appended as a frame of its length, a CRC32 checksum and its payload. Writes go to the file
+     * immediately but are only forced to disk by {@link #sync()}, which implements group commit: a caller forces
+     * everything written so far, and callers that wrote in the meantime find their data already durable and return
+     * without forcing again. Acknowledgments are appended the same way. On open, the journal is replayed and every
+     * notification without an acknowledgment is reported by {@link #pending()}. A torn frame at the end of the file,
+     * left by a crash mid-write, is detected by its checksum and cut off.
+     * <p>
+     *
+     * The file is truncated whenever nothing is pending and compacted to just the pending notifications after a
+     * configurable number of acknowledgments, so it does not grow without bound.
+     */
+    static final class CommandJournal implements AutoCloseable {
+        /**
+         * The channel a journaled notification is sent over.
+         */
+        enum Channel { SMS, EMAIL }
+
+        /**
+         * A notification recorded in the journal.
+         *
+         * @param sequence the sequence number assigned by the journal.
+         * @param channel the channel to send the notification over.
+         * @param contact the contact to send the notification to.
+         * @param message the body of the notification.
+         */
+        record Entry(long sequence, Channel channel, Contact contact, String message) {}
+
+        private static final byte APPEND = 1;
+        private static final byte ACKNOWLEDGE = 2;
+        private static final int HEADER_BYTES = 8;
+
+        private final Path path;
+        private final int compactionThreshold;
+        private final Object syncLock = new Object();
+        private final Map<Long, Entry> pending = new LinkedHashMap<>();
+        private FileChannel channel;
+        private long nextSequence;
+        private long written;
+        private long synced;
+        private int acknowledgedSinceCompaction;
+
+        private CommandJournal(Path path, int compactionThreshold) {
+            this.path = path;
+            this.compactionThreshold = compactionThreshold;
+        }
+
+        /**
+         * Opens the journal at the given path, creating it if needed and replaying any existing contents.
+         *
+         * @param path the journal file.
+         * @param compactionThreshold the number of acknowledgments after which the file is compacted.
+         * @return the opened journal.
+         * @throws IOException if the file cannot be read or opened.
+         */
+        static CommandJournal open(Path path, int compactionThreshold) throws IOException {
+            if (compactionThreshold <= 0) {
+                throw new IllegalArgumentException("compactionThreshold must be positive");
+            }
+
+            final CommandJournal journal = new CommandJournal(path, compactionThreshold);
+            final long valid = Files.exists(path) ? journal.replay() : 0;
+            journal.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            journal.channel.truncate(valid);
+            journal.channel.position(valid);
+            return journal;
+        }
+
+        /**
+         * Returns the notifications that were appended but not yet acknowledged, in the order they were appended.
+         *
+         * @return a snapshot of the pending notifications.
+         */
+        synchronized List<Entry> pending() {
+            return List.copyOf(pending.values());
+        }
+
+        /**
+         * Appends a notification. The notification is only durable after a subsequent {@link #sync()}.
+         *
+         * @param channel the channel to send the notification over.
+         * @param contact the contact to send the notification to.
+         * @param message the body of the notification.
+         * @return the recorded entry, with its assigned sequence number.
+         * @throws IOException if the notification could not be written.
+         */
+        synchronized Entry append(Channel channel, Contact contact, String message) throws IOException {
+            final Entry entry = new Entry(++nextSequence, channel, contact, message);
+            write(encode(entry));
+            pending.put(entry.sequence(), entry);
+            return entry;
+        }
+
+        /**
+         * Records that a notification no longer needs to be sent. Acknowledgments are not forced to disk.
+         *
+         * @param sequence the sequence number of the notification.
+         * @throws IOException if the acknowledgment could not be written.
+         */
+        void acknowledge(long sequence) throws IOException {
+            final boolean compact;
+            synchronized (this) {
+                if (pending.remove(sequence) == null) {
+                    return;
+                }
+                write(encodeAcknowledgment(sequence));
+                compact = pending.isEmpty() || ++acknowledgedSinceCompaction >= compactionThreshold;
+            }
+
+            if (compact) {
+                compact();
+            }
+        }
+
+        /**
+         * Forces everything appended so far to disk, sharing the flush with concurrent callers.
+         *
+         * @throws IOException if the file could not be forced.
+         */
+        void sync() throws IOException {
+            final long target;
+            synchronized (this) {
+                target = written;
+            }
+
+            synchronized (syncLock) {
+                if (synced >= target) {
+                    return;
+                }
+
+                final long covered;
+                synchronized (this) {
+                    covered = written;
+                }
+                channel.force(false);
+                synced = covered;
+            }
+        }
+
+        /**
+         * Rewrites the journal to contain only the pending notifications, or truncates it if there are none.
+         *
+         * @throws IOException if the journal could not be rewritten.
+         */
+        void compact() throws IOException {
+            synchronized (syncLock) {
+                synchronized (this) {
+                    acknowledgedSinceCompaction = 0;
+                    if (pending.isEmpty()) {
+                        channel.truncate(0);
+                        channel.force(false);
+                        synced = written;
+                        return;
+                    }
+
+                    final Path temporary = path.resolveSibling(path.getFileName() + ".compact");
+                    try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                        for (Entry entry : pending.values()) {
+                            final ByteBuffer frame = encode(entry);
+                            while (frame.hasRemaining()) {
+                                out.write(frame);
+                            }
+                        }
+                        out.force(false);
+                    }
+
+                    channel.close();
+                    Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    channel = FileChannel.open(path, StandardOpenOption.WRITE);
+                    channel.position(channel.size());
+                    synced = written;
+                }
+            }
+        }
+
+        /**
+         * Closes the journal, forcing all outstanding writes to disk first.
+         *
+         * @throws IOException if the journal could not be forced or closed.
+         */
+        @Override
+        public void close() throws IOException {
+            synchronized (syncLock) {
+                synchronized (this) {
+                    channel.force(false);
+                    channel.close();
+                }
+            }
+        }
+
+        /**
+         * Reads all intact frames, rebuilding the pending notifications and returning the length of the valid prefix.
+         */
+        private long replay() throws IOException {
+            final long size = Files.size(path);
+            long valid = 0;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                while (true) {
+                    final int length;
+                    final int checksum;
+                    final byte[] payload;
+                    try {
+                        length = in.readInt();
+                        checksum = in.readInt();
+                        if (length <= 0 || length > size - valid - HEADER_BYTES) {
+                            break;
+                        }
+                        payload = in.readNBytes(length);
+                    } catch (EOFException ex) {
+                        break;
+                    }
+                    if (payload.length != length || checksum(payload) != checksum) {
+                        break;
+                    }
+
+                    apply(new DataInputStream(new ByteArrayInputStream(payload)));
+                    valid += HEADER_BYTES + length;
+                }
+            }
+            return valid;
+        }
+
+        private void apply(DataInputStream payload) throws IOException {
+            final byte type = payload.readByte();
+            final long sequence = payload.readLong();
+            nextSequence = Math.max(nextSequence, sequence);
+
+            if (type == ACKNOWLEDGE) {
+                pending.remove(sequence);
+                return;
+            }
+
+            final Channel channel = Channel.values()[payload.readByte()];
+            final Contact contact = new Contact(readString(payload), readString(payload));
+            pending.put(sequence, new Entry(sequence, channel, contact, readString(payload)));
+        }
+
+        private void write(ByteBuffer frame) throws IOException {
+            final int length = frame.remaining();
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+            written += length;
+        }
+
+        private static ByteBuffer encode(Entry entry) throws IOException {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(APPEND);
+            out.writeLong(entry.sequence());
+            out.writeByte(entry.channel().ordinal());
+            writeString(out, entry.contact().email());
+            writeString(out, entry.contact().phone());
+            writeString(out, entry.message());
+            return frame(bytes.toByteArray());
+        }
+
+        private static ByteBuffer encodeAcknowledgment(long sequence) {
+            final byte[] payload = ByteBuffer.allocate(9).put(ACKNOWLEDGE).putLong(sequence).array();
+            return frame(payload);
+        }
+
+        private static ByteBuffer frame(byte[] payload) {
+            final ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+            frame.putInt(payload.length).putInt(checksum(payload)).put(payload).flip();
+            return frame;
+        }
+
+        private static int checksum(byte[] payload) {
+            final CRC32 crc = new CRC32();
+            crc.update(payload);
+            return (int) crc.getValue();
+        }
+
+        private static void writeString(DataOutputStream out, String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private static String readString(DataInputStream in) throws IOException {
+            final int length = in.readInt();
+            return length < 0 ? null : new String(in.readNBytes(length), StandardCharsets.UTF_8);
+        }
     }
 }
@@ -87,6 +87,32 @@ public class AbstractFactoryPattern {
         Element createButton();
         Element createMenuButton();
         Element createRadioButton();
+
+        /**
+         * Creates {@code n} groups of a button, a menu button and a radio button, in that order, into a single
+         * pre-sized array.
+         * <p>
+         *
+         * Filling one array sized up front avoids the repeated growth and copying of a list when building large UIs,
+         * and with factories that return canonical instances the array is the only allocation.
+         *
+         * @param n the number of element groups to create
+         * @return an array of length {@code 3 * n} holding the created elements
+         * @throws IllegalArgumentException if {@code n} is negative or the array would be too large
+         */
+        default Element[] createAll(int n) {
+            if (n < 0 || n > Integer.MAX_VALUE / 3) {
+                throw new IllegalArgumentException("invalid element group count: " + n);
+            }
+
+            final Element[] elements = new Element[n * 3];
+            for (int i = 0; i < elements.length; i += 3) {
+                elements[i] = createButton();
+                elements[i + 1] = createMenuButton();
+                elements[i + 2] = createRadioButton();
+            }
+            return elements;
+        }
     }
 
     /**
@@ -113,41 +139,55 @@ public class AbstractFactoryPattern {
 
     /**
      * A concrete factory for creating UI elements for macOS.
+     * <p>
+     *
+     * The elements are stateless records, so every call returns the same canonical instance rather than allocating.
      */
     class MacElementFactory implements ElementFactory {
+        private static final MacElement.Button BUTTON = new MacElement.Button();
+        private static final MacElement.MenuButton MENU_BUTTON = new MacElement.MenuButton();
+        private static final MacElement.RadioButton RADIO_BUTTON = new MacElement.RadioButton();
+
         @Override
         public MacElement.Button createButton() {
-            return new MacElement.Button();
+            return BUTTON;
         }
 
         @Override
         public MacElement.MenuButton createMenuButton() {
-            return new MacElement.MenuButton();
+            return MENU_BUTTON;
         }
 
         @Override
         public MacElement.RadioButton createRadioButton() {
-            return new MacElement.RadioButton();
+            return RADIO_BUTTON;
         }
     }
 
     /**
      * A concrete factory for creating UI elements for windows.
+     * <p>
+     *
+     * Like {@link MacElementFactory}, it hands out one shared instance per element type.
      */
     class WinElementFactory implements ElementFactory {
+        private static final WinElement.Button BUTTON = new WinElement.Button();
+        private static final WinElement.MenuButton MENU_BUTTON = new WinElement.MenuButton();
+        private static final WinElement.RadioButton RADIO_BUTTON = new WinElement.RadioButton();
+
         @Override
         public WinElement.Button createButton() {
-            return new WinElement.Button();
+            return BUTTON;
         }
 
         @Override
         public WinElement.MenuButton createMenuButton() {
-            return new WinElement.MenuButton();
+            return MENU_BUTTON;
         }
 
         @Override
         public WinElement.RadioButton createRadioButton() {
-            return new WinElement.RadioButton();
+            return RADIO_BUTTON;
         }
     }
 }
@@ -1,5 +1,8 @@
 package creational;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -37,6 +40,15 @@ import static java.util.Objects.requireNonNull;
  *     .setName("Another Product")  // Order doesn't matter
  *     .setId("456")
  *     .build();
+ *
+ * // For bulk imports, a single builder can be reset and reused for every row
+ * Product.Builder builder = new Product.Builder();
+ * for (int i = 0; i < ids.length; i++) {
+ *     products[i] = builder.reset().setId(ids[i]).setName(names[i]).build();
+ * }
+ *
+ * // or whole columns can be built at once, collecting invalid rows instead of throwing
+ * Product.BulkBuild result = Product.Builder.buildAll(ids, names);
  * }</pre>
  *
  * <h4>When to Use:</h4>
@@ -192,6 +204,81 @@ public class BuilderPattern {
                 instance.name = requireNonNull(name, "name must not be null");
                 return instance;
             }
+
+            /**
+             * Clears all configured properties so this builder can be reused for the next product.
+             * <p>
+             *
+             * Building does not modify the builder, so a single instance can construct any number of products in a
+             * loop without allocating a builder per product.
+             *
+             * @return this builder instance to enable method chaining
+             */
+            public Builder reset() {
+                this.id = null;
+                this.name = null;
+                return this;
+            }
+
+            /**
+             * Constructs one {@link Product} per row from columnar input, validating every row up front.
+             * <p>
+             *
+             * Rows that fail validation are reported together in the result rather than by throwing on the first
+             * failure, and their slot in the product array is left null. Valid rows are filled in directly, without
+             * going through a builder.
+             *
+             * @param ids   the identifier column
+             * @param names the name column, of the same length as {@code ids}
+             * @return the products built and the validation failures found, by row
+             * @throws IllegalArgumentException if the columns have different lengths
+             */
+            static BulkBuild buildAll(String[] ids, String[] names) {
+                if (ids.length != names.length) {
+                    throw new IllegalArgumentException("columns must have the same length");
+                }
+
+                final Product[] products = new Product[ids.length];
+                final List<Violation> violations = new ArrayList<>();
+                for (int row = 0; row < ids.length; row++) {
+                    if (ids[row] == null) {
+                        violations.add(new Violation(row, "id must not be null"));
+                    } else if (names[row] == null) {
+                        violations.add(new Violation(row, "name must not be null"));
+                    } else {
+                        final Product instance = new Product();
+                        instance.id = ids[row];
+                        instance.name = names[row];
+                        products[row] = instance;
+                    }
+                }
+                return new BulkBuild(products, violations);
+            }
+        }
+
+        /**
+         * The outcome of {@link Builder#buildAll(String[], String[])}.
+         *
+         * @param products   the built products by row, with null for rows that failed validation
+         * @param violations the validation failures, in row order
+         */
+        record BulkBuild(Product[] products, List<Violation> violations) {
+            /**
+             * Returns whether every row was built.
+             *
+             * @return true if no row failed validation
+             */
+            public boolean succeeded() {
+                return violations.isEmpty();
+            }
         }
+
+        /**
+         * A validation failure of a single input row.
+         *
+         * @param row     the index of the failed row
+         * @param message a description of the failure
+         */
+        record Violation(int row, String message) {}
     }
 }
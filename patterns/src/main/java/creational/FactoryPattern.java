@@ -1,5 +1,20 @@
 package creational;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
 /**
  * The factory pattern is a creational design pattern that provides an interface for creating objects without
  * specifying their concrete classes.
@@ -43,6 +58,15 @@ package creational;
  * // Easy to switch factory types
  * VehicleFactory bikeFactory = new BikeFactory();
  * Vehicle anotherVehicle = bikeFactory.createVehicle(); // Returns a Bike instance
+ *
+ * // Factories can also be looked up by vehicle type through a precomputed registry
+ * VehicleRegistry registry = new VehicleRegistry(List.of(new CarFactory(), new BikeFactory(), new TruckFactory()));
+ * Vehicle truck = registry.create("Truck");
+ *
+ * // Short-lived vehicles can be recycled through a pool instead of being allocated each time
+ * PooledVehicleFactory pooled = new PooledVehicleFactory(new CarFactory(), 256, false);
+ * Vehicle recycled = pooled.createVehicle();
+ * pooled.release(recycled);
  * }</pre>
  *
  * <h4>When to Use This Pattern:</h4>
@@ -153,4 +177,328 @@ public class FactoryPattern {
             return new Truck();
         }
     }
+
+    /**
+     * Registry that resolves vehicle type names, such as "Car", to their factories on a hot path.
+     * <p>
+     *
+     * All factories are known when the registry is constructed, so the names are placed into a collision-free
+     * (perfect) hash table: the table is grown until every name lands in its own slot. A lookup is then a single hash
+     * of the name, which {@link String} caches, one array read and one equality check, with no probing or boxing.
+     * Names whose hashes cannot be told apart at any size, such as "Aa" and "BB", stop the growth once the table has
+     * quadrupled; it then falls back to linear probing, which costs those few names an extra comparison or two.
+     * <p>
+     *
+     * Factories can be written by hand, bound directly to a vehicle constructor with {@link #bind}, or discovered on
+     * the class path with {@link #discover(ClassLoader)}.
+     */
+    class VehicleRegistry {
+        private final String[] types;
+        private final VehicleFactory[] factories;
+        private final int mask;
+
+        /**
+         * Constructs a registry keyed by the type reported by each factory's vehicles.
+         * <p>
+         *
+         * Each factory is asked to create one vehicle at construction time to learn its type name.
+         *
+         * @param factories the factories to register
+         * @throws IllegalArgumentException if two factories produce vehicles of the same type
+         */
+        VehicleRegistry(List<? extends VehicleFactory> factories) {
+            final String[] names = new String[factories.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = requireNonNull(factories.get(i).createVehicle().getType());
+            }
+
+            int size = Integer.highestOneBit(Math.max(1, names.length * 2 - 1)) << 1;
+            final int maxSize = size << 2;
+            String[] table;
+            while ((table = place(names, size, size == maxSize)) == null) {
+                size <<= 1;
+            }
+
+            this.types = table;
+            this.factories = new VehicleFactory[size];
+            this.mask = size - 1;
+            for (int i = 0; i < names.length; i++) {
+                this.factories[find(table, names[i], mask)] = factories.get(i);
+            }
+        }
+
+        /**
+         * Creates a vehicle of the given type.
+         *
+         * @param type the vehicle type name, such as "Car"
+         * @return a new vehicle of that type
+         * @throws IllegalArgumentException if no factory is registered for the type
+         */
+        public Vehicle create(String type) {
+            return factory(type).createVehicle();
+        }
+
+        /**
+         * Returns the factory registered for the given type, for callers that want to resolve it once up front.
+         *
+         * @param type the vehicle type name, such as "Car"
+         * @return the factory for that type
+         * @throws IllegalArgumentException if no factory is registered for the type
+         */
+        public VehicleFactory factory(String type) {
+            final int slot = find(types, type, mask);
+            if (slot < 0) {
+                throw new IllegalArgumentException("unknown vehicle type: " + type);
+            }
+            return factories[slot];
+        }
+
+        /**
+         * Binds a vehicle's no-argument constructor into a {@link VehicleFactory} once, at startup.
+         * <p>
+         *
+         * The factory is spun by {@link LambdaMetafactory}, the same mechanism behind {@code Car::new}, so after JIT
+         * compilation calling it costs the same as a direct {@code new}. Inner vehicle classes, such as {@link Car},
+         * capture the given enclosing instance.
+         *
+         * @param lookup    a lookup with access to the vehicle's constructor
+         * @param type      the vehicle class to construct
+         * @param enclosing the enclosing instance for inner classes, or null for top-level and static classes
+         * @return a factory that creates a new instance of {@code type} on every call
+         * @throws IllegalArgumentException if the constructor cannot be found or accessed
+         */
+        static VehicleFactory bind(MethodHandles.Lookup lookup, Class<? extends Vehicle> type, Object enclosing) {
+            final boolean inner = type.getEnclosingClass() != null && !Modifier.isStatic(type.getModifiers());
+            final Class<?>[] captured = inner ? new Class<?>[] {type.getEnclosingClass()} : new Class<?>[0];
+
+            try {
+                final MethodHandle constructor =
+                        lookup.findConstructor(type, MethodType.methodType(void.class, captured));
+                final CallSite site = LambdaMetafactory.metafactory(
+                        lookup,
+                        "createVehicle",
+                        MethodType.methodType(VehicleFactory.class, captured),
+                        MethodType.methodType(Vehicle.class),
+                        constructor,
+                        MethodType.methodType(type));
+
+                if (inner) {
+                    requireNonNull(enclosing, "enclosing instance required for " + type.getName());
+                    return (VehicleFactory) site.getTarget().invoke(enclosing);
+                }
+                return (VehicleFactory) site.getTarget().invoke();
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalArgumentException("cannot bind constructor of " + type.getName(), ex);
+            }
+        }
+
+        /**
+         * Discovers factories registered as {@link ServiceLoader} providers of {@link VehicleFactory}.
+         * <p>
+         *
+         * Providers are listed in {@code META-INF/services/creational.FactoryPattern$VehicleFactory} and, as the
+         * service loader requires, must be public classes with a public no-argument constructor.
+         *
+         * @param loader the class loader to search
+         * @return the discovered factories, ready to pass to the registry constructor
+         */
+        static List<VehicleFactory> discover(ClassLoader loader) {
+            final List<VehicleFactory> discovered = new ArrayList<>();
+            ServiceLoader.load(VehicleFactory.class, loader).forEach(discovered::add);
+            return discovered;
+        }
+
+        /**
+         * Places every name into a table of the given size. On a collision, either probes for the next free slot or,
+         * unless probing is allowed, returns null so that a larger size can be tried.
+         */
+        private static String[] place(String[] names, int size, boolean probe) {
+            final String[] table = new String[size];
+            for (String name : names) {
+                int slot = slot(name, size - 1);
+                while (table[slot] != null) {
+                    if (table[slot].equals(name)) {
+                        throw new IllegalArgumentException("duplicate vehicle type: " + name);
+                    }
+                    if (!probe) {
+                        return null;
+                    }
+                    slot = (slot + 1) & (size - 1);
+                }
+                table[slot] = name;
+            }
+            return table;
+        }
+
+        /**
+         * Returns the slot holding the name, or -1 if it is absent. The table always has free slots, so the probe
+         * ends; in a collision-free table it ends at the first slot.
+         */
+        private static int find(String[] table, String type, int mask) {
+            for (int slot = slot(type, mask); ; slot = (slot + 1) & mask) {
+                final String candidate = table[slot];
+                if (candidate == null) {
+                    return -1;
+                }
+                if (candidate == type || candidate.equals(type)) {
+                    return slot;
+                }
+            }
+        }
+
+        private static int slot(String type, int mask) {
+            final int hash = type.hashCode();
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+    }
+
+    /**
+     * Factory decorator that recycles released vehicles instead of allocating a new one on every call.
+     * <p>
+     *
+     * Each thread keeps its own bounded free list, so acquiring and releasing never contend. A vehicle released on a
+     * different thread than it was created on simply joins that thread's list, and vehicles released into a full list
+     * are left to the garbage collector. The vehicles in this package are stateless, so no reset is needed before
+     * reuse; factories for stateful products would need to clear them on release.
+     * <p>
+     *
+     * In debug mode, every outstanding vehicle is tracked with the stack trace of its creation so that leaked vehicles
+     * can be reported through {@link #leaks()}, and releasing a vehicle that is not outstanding fails fast. Debug mode
+     * is meant for tests as it records a trace per call.
+     * <p>
+     *
+     * The counters reported by {@link #allocatedCount()} and {@link #reusedCount()} can be compared with allocation
+     * and GC pause measurements to decide whether pooling pays off over plain allocation, which is often already
+     * cheap for small, short-lived objects.
+     */
+    class PooledVehicleFactory implements VehicleFactory {
+        /**
+         * A thread's stack of released vehicles.
+         */
+        private static final class FreeList {
+            private final Vehicle[] vehicles;
+            private int size;
+
+            private FreeList(int capacity) {
+                this.vehicles = new Vehicle[capacity];
+            }
+        }
+
+        private final VehicleFactory delegate;
+        private final ThreadLocal<FreeList> freeLists;
+        private final Map<Vehicle, Throwable> outstanding;
+        private final LongAdder allocated = new LongAdder();
+        private final LongAdder reused = new LongAdder();
+        private final LongAdder discarded = new LongAdder();
+
+        /**
+         * Constructs a pooled factory around the given factory.
+         *
+         * @param delegate     the factory used when a thread has no released vehicles
+         * @param maxPerThread the maximum number of released vehicles retained per thread
+         * @param debug        whether to track outstanding vehicles for leak detection
+         * @throws IllegalArgumentException if {@code maxPerThread} is not positive
+         */
+        PooledVehicleFactory(VehicleFactory delegate, int maxPerThread, boolean debug) {
+            if (maxPerThread <= 0) {
+                throw new IllegalArgumentException("maxPerThread must be positive");
+            }
+            this.delegate = requireNonNull(delegate);
+            this.freeLists = ThreadLocal.withInitial(() -> new FreeList(maxPerThread));
+            this.outstanding = debug ? new IdentityHashMap<>() : null;
+        }
+
+        /**
+         * Returns a released vehicle from the current thread's free list, or a new one if the list is empty.
+         *
+         * @return a vehicle that should be handed back through {@link #release(Vehicle)} once no longer used
+         */
+        @Override
+        public Vehicle createVehicle() {
+            final FreeList list = freeLists.get();
+            final Vehicle vehicle;
+            if (list.size > 0) {
+                vehicle = list.vehicles[--list.size];
+                list.vehicles[list.size] = null;
+                reused.increment();
+            } else {
+                vehicle = delegate.createVehicle();
+                allocated.increment();
+            }
+
+            if (outstanding != null) {
+                synchronized (outstanding) {
+                    outstanding.put(vehicle, new Throwable("vehicle acquired here"));
+                }
+            }
+            return vehicle;
+        }
+
+        /**
+         * Returns a vehicle to the current thread's free list. The caller must not use the vehicle afterwards.
+         *
+         * @param vehicle a vehicle previously obtained from {@link #createVehicle()}
+         * @throws IllegalStateException in debug mode, if the vehicle is not outstanding
+         */
+        public void release(Vehicle vehicle) {
+            requireNonNull(vehicle);
+            if (outstanding != null) {
+                synchronized (outstanding) {
+                    if (outstanding.remove(vehicle) == null) {
+                        throw new IllegalStateException("vehicle was not acquired from this pool or already released");
+                    }
+                }
+            }
+
+            final FreeList list = freeLists.get();
+            if (list.size < list.vehicles.length) {
+                list.vehicles[list.size++] = vehicle;
+            } else {
+                discarded.increment();
+            }
+        }
+
+        /**
+         * Returns the creation traces of all vehicles that are currently acquired and not yet released.
+         *
+         * @return the outstanding acquisitions, or an empty list when debug mode is off
+         */
+        public List<Throwable> leaks() {
+            if (outstanding == null) {
+                return List.of();
+            }
+            synchronized (outstanding) {
+                return List.copyOf(outstanding.values());
+            }
+        }
+
+        /**
+         * Returns the number of vehicles created by the underlying factory.
+         *
+         * @return the number of allocations
+         */
+        public long allocatedCount() {
+            return allocated.sum();
+        }
+
+        /**
+         * Returns the number of calls served from a free list instead of allocating.
+         *
+         * @return the number of reuses
+         */
+        public long reusedCount() {
+            return reused.sum();
+        }
+
+        /**
+         * Returns the number of released vehicles dropped because the free list was full.
+         *
+         * @return the number of discarded vehicles
+         */
+        public long discardedCount() {
+            return discarded.sum();
+        }
+    }
 }
@@ -1,5 +1,10 @@
 package creational;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.requireNonNull;
+
 /**
  * The prototype design pattern is a creational design approach that streamlines the process of creating complex
  * objects by enabling clients to produce clones of existing objects rather than constructing new instances from the
@@ -124,5 +129,99 @@ public class PrototypePattern {
         public Prototype copy() {
             return new Product(id, name);
         }
+
+        /**
+         * Returns a copy of this product with a different identifier.
+         * <p>
+         *
+         * Only the changed property is new; the name is shared with this product, so templated products that differ
+         * in a single property cost one small object each.
+         *
+         * @param id the identifier of the copy
+         * @return a new product with the given identifier and this product's name
+         */
+        public Product withId(String id) {
+            return new Product(id, name);
+        }
+
+        /**
+         * Returns a copy of this product with a different name, sharing the identifier with this product.
+         *
+         * @param name the name of the copy
+         * @return a new product with this product's identifier and the given name
+         */
+        public Product withName(String name) {
+            return new Product(id, name);
+        }
+    }
+
+    /**
+     * A central registry of prototypes keyed by identifier, from which clones are requested by clients.
+     * <p>
+     *
+     * Clones are shallow, so every clone shares the prototype's immutable properties until it is changed through a
+     * method such as {@link Product#withName(String)}, which replaces only the changed property. Spawning large numbers
+     * of templated products therefore costs one small object per clone.
+     */
+    class PrototypeRegistry {
+        private final Map<String, Prototype> prototypes = new ConcurrentHashMap<>();
+
+        /**
+         * Registers a prototype under its own identifier, replacing any prototype previously registered under it.
+         *
+         * @param prototype the prototype to register
+         */
+        public void register(Prototype prototype) {
+            prototypes.put(prototype.getId(), requireNonNull(prototype));
+        }
+
+        /**
+         * Removes the prototype registered under the identifier, if any.
+         *
+         * @param id the identifier of the prototype
+         */
+        public void unregister(String id) {
+            prototypes.remove(id);
+        }
+
+        /**
+         * Creates a clone of the prototype registered under the identifier.
+         *
+         * @param id the identifier of the prototype
+         * @return a new clone of the prototype
+         * @throws IllegalArgumentException if no prototype is registered under the identifier
+         */
+        public Prototype copy(String id) {
+            return lookup(id).copy();
+        }
+
+        /**
+         * Creates {@code n} clones of the prototype registered under the identifier into a single pre-sized array.
+         *
+         * @param id the identifier of the prototype
+         * @param n  the number of clones to create
+         * @return an array of {@code n} new clones
+         * @throws IllegalArgumentException if no prototype is registered under the identifier or {@code n} is negative
+         */
+        public Prototype[] copyN(String id, int n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("clone count must not be negative");
+            }
+
+            final Prototype prototype = lookup(id);
+            final Prototype[] clones = new Prototype[n];
+            for (int i = 0; i < n; i++) {
+                clones[i] = prototype.copy();
+            }
+            return clones;
+        }
+
+        private Prototype lookup(String id) {
+            final Prototype prototype = prototypes.get(id);
+            if (prototype == null) {
+                throw new IllegalArgumentException("no prototype registered for id: " + id);
+            }
+            return prototype;
+        }
     }
 }
@@ -1,5 +1,16 @@
 package creational;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
 /**
  * The singleton is a creational pattern that ensures a class has at most one instance and provides a global point of
  * access to this instance.
@@ -28,6 +39,17 @@ package creational;
  * thread-safe by default and ensures the instance is ready when first accessed, following the principle of fail-fast
  * initialization.
  *
+ * <h4>Thread Safety of State:</h4>
+ * The stored value is accessed through a {@link VarHandle} with release/acquire semantics, so a value written by one
+ * thread is promptly visible to every other thread, and reads stay as cheap as a plain field load on most hardware.
+ * Atomic read-modify-write operations such as {@link #compareAndSet} and {@link #updateAndGet} allow the singleton to
+ * act as a shared, process-wide configuration cell. {@link Lazy} shows the lazily initialized holder idiom instead.
+ * <p>
+ *
+ * For structured settings, the singleton also holds an immutable, versioned {@link Snapshot}. Updates build a new
+ * snapshot and swap it in, so readers always see one consistent version without locking, and subscribers are told
+ * about every version in order.
+ *
  * <h4>Benefits:</h4>
  * <ul>
  *     <li>Reduced memory usage: Only one instance exists throughout the application</li>
@@ -64,6 +86,26 @@ public class SingletonPattern {
      */
     private static final SingletonPattern instance = new SingletonPattern();
 
+    /**
+     * The handle used for all concurrent access to {@link #value}.
+     */
+    private static final VarHandle VALUE;
+
+    /**
+     * The handle used for all concurrent access to {@link #snapshot}.
+     */
+    private static final VarHandle SNAPSHOT;
+
+    static {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            VALUE = lookup.findVarHandle(SingletonPattern.class, "value", String.class);
+            SNAPSHOT = lookup.findVarHandle(SingletonPattern.class, "snapshot", Snapshot.class);
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
     /**
      * The value stored in this singleton instance.
      * <p>
@@ -73,6 +115,16 @@ public class SingletonPattern {
      */
     private String value;
 
+    /**
+     * The current settings snapshot, replaced as a whole on every update and never modified in place.
+     */
+    private Snapshot snapshot = new Snapshot(0, Map.of());
+
+    /**
+     * The subscribers notified of every new snapshot.
+     */
+    private final List<Consumer<Snapshot>> subscribers = new CopyOnWriteArrayList<>();
+
     /**
      * Private constructor to prevent external instantiation.
      * <p>
@@ -84,20 +136,157 @@ public class SingletonPattern {
 
     /**
      * Returns the value stored in this singleton instance.
+     * <p>
+     *
+     * This is an acquire read, so everything the writing thread did before {@link #setValue} is visible as well.
      *
      * @return the current value stored in the singleton, or null if not set
      */
     public String getValue() {
-        return value;
+        return (String) VALUE.getAcquire(this);
     }
 
     /**
      * Sets the value in this singleton instance.
+     * <p>
+     *
+     * This is a release write, which safely publishes the value to threads that later call {@link #getValue}.
      *
      * @param value the new value to store in the singleton
      */
     public void setValue(String value) {
-        this.value = value;
+        VALUE.setRelease(this, value);
+    }
+
+    /**
+     * Atomically sets the value if it is currently the expected value.
+     * <p>
+     *
+     * The comparison is by reference, as for {@link AtomicReference}, so {@code expected} should be a value obtained
+     * from {@link #getValue} rather than an equal but distinct string.
+     *
+     * @param expected the value believed to be stored
+     * @param value    the new value to store
+     * @return true if the value was replaced, false if another value was stored
+     */
+    public boolean compareAndSet(String expected, String value) {
+        return VALUE.compareAndSet(this, expected, value);
+    }
+
+    /**
+     * Atomically replaces the value, returning the previous one.
+     *
+     * @param value the new value to store
+     * @return the value stored before the call
+     */
+    public String getAndSet(String value) {
+        return (String) VALUE.getAndSet(this, value);
+    }
+
+    /**
+     * Atomically replaces the value with the result of applying the function to it.
+     * <p>
+     *
+     * The function may be called more than once under contention, so it should be free of side effects.
+     *
+     * @param update the function computing the new value from the current one
+     * @return the new value
+     */
+    public String updateAndGet(UnaryOperator<String> update) {
+        String current = getValue();
+        while (true) {
+            final String next = update.apply(current);
+            if (VALUE.weakCompareAndSet(this, current, next)) {
+                return next;
+            }
+            current = getValue();
+        }
+    }
+
+    /**
+     * Returns the current settings snapshot.
+     * <p>
+     *
+     * This is a single acquire read with no locking, and the returned snapshot never changes, so all settings read
+     * from it belong to the same version.
+     *
+     * @return the current snapshot
+     */
+    public Snapshot getSnapshot() {
+        return (Snapshot) SNAPSHOT.getAcquire(this);
+    }
+
+    /**
+     * Replaces the settings with a new snapshot computed from the current settings, then notifies all subscribers.
+     * <p>
+     *
+     * Updates are serialized, which is acceptable as they are rare, so subscribers see every version exactly once and
+     * in order. Readers are never blocked by an update. A subscriber that throws does not keep the others from being
+     * notified; once all have been called, the first exception is rethrown with any later ones suppressed, and the
+     * snapshot stays published.
+     *
+     * @param update the function computing the new settings from the current ones
+     * @return the newly published snapshot
+     * @throws RuntimeException the first exception thrown by a subscriber, if any
+     */
+    public synchronized Snapshot updateSnapshot(UnaryOperator<Map<String, String>> update) {
+        final Snapshot current = getSnapshot();
+        final Snapshot next = new Snapshot(current.version() + 1, update.apply(current.settings()));
+        SNAPSHOT.setRelease(this, next);
+
+        RuntimeException failure = null;
+        for (Consumer<Snapshot> subscriber : subscribers) {
+            try {
+                subscriber.accept(next);
+            } catch (RuntimeException ex) {
+                if (failure == null) {
+                    failure = ex;
+                } else {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return next;
+    }
+
+    /**
+     * Registers a subscriber to be called with every snapshot published after this call.
+     * <p>
+     *
+     * Subscribers run on the updating thread while updates are held back, so they should return quickly.
+     *
+     * @param subscriber the callback receiving each new snapshot
+     * @return an action that removes the subscriber
+     */
+    public Runnable subscribe(Consumer<Snapshot> subscriber) {
+        requireNonNull(subscriber);
+        subscribers.add(subscriber);
+        return () -> subscribers.remove(subscriber);
+    }
+
+    /**
+     * An immutable, versioned view of the settings held by the singleton.
+     *
+     * @param version  a number that increases by one with every update
+     * @param settings the settings of this version, which cannot be modified
+     */
+    public record Snapshot(long version, Map<String, String> settings) {
+        public Snapshot {
+            settings = Map.copyOf(settings);
+        }
+
+        /**
+         * Returns the value of a setting in this version.
+         *
+         * @param key the name of the setting
+         * @return the value, or null if the setting is absent
+         */
+        public String get(String key) {
+            return settings.get(key);
+        }
     }
 
     /**
@@ -112,4 +301,73 @@ public class SingletonPattern {
     public static SingletonPattern getInstance() {
         return instance;
     }
+
+    /**
+     * A lazily initialized variant of the singleton using the initialization-on-demand holder idiom.
+     * <p>
+     *
+     * The instance lives in a nested holder class, which the JVM only initializes on the first call to
+     * {@link #getInstance()}. Class initialization is guaranteed to happen once and to be visible to all threads, so
+     * no locking or volatile read is needed on access.
+     */
+    public static final class Lazy {
+        private final AtomicReference<String> value = new AtomicReference<>();
+
+        private Lazy() {}
+
+        /**
+         * Holds the instance so that it is only created when the holder class is first initialized.
+         */
+        private static final class Holder {
+            private static final Lazy INSTANCE = new Lazy();
+        }
+
+        /**
+         * Returns the single instance, creating it on the first call.
+         *
+         * @return the single instance of the {@link Lazy} class
+         */
+        public static Lazy getInstance() {
+            return Holder.INSTANCE;
+        }
+
+        /**
+         * Returns the stored value.
+         *
+         * @return the current value, or null if not set
+         */
+        public String getValue() {
+            return value.get();
+        }
+
+        /**
+         * Sets the stored value.
+         *
+         * @param value the new value to store
+         */
+        public void setValue(String value) {
+            this.value.set(value);
+        }
+
+        /**
+         * Atomically sets the value if it is currently the expected value, compared by reference.
+         *
+         * @param expected the value believed to be stored
+         * @param value    the new value to store
+         * @return true if the value was replaced
+         */
+        public boolean compareAndSet(String expected, String value) {
+            return this.value.compareAndSet(expected, value);
+        }
+
+        /**
+         * Atomically replaces the value with the result of applying the function to it.
+         *
+         * @param update the side-effect-free function computing the new value
+         * @return the new value
+         */
+        public String updateAndGet(UnaryOperator<String> update) {
+            return value.updateAndGet(update);
+        }
+    }
 }
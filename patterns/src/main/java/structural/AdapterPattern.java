@@ -1,6 +1,27 @@
 package structural;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import static java.util.Objects.requireNonNull;
 
@@ -36,6 +57,25 @@ import static java.util.Objects.requireNonNull;
  * StripeService stripeService = new StripeServiceImpl();
  * PaymentProcessor processor = new StripePaymentAdapter(stripeService);
  * processor.process("ORDER123", new BigDecimal("99.99"));
+ *
+ * // or exactly, in minor units, without converting through BigDecimal or double
+ * processor.process("ORDER123", 9999L, Currency.getInstance("USD"));
+ *
+ * // at peak load, payments can be coalesced into bulk provider calls
+ * try (var batching = new BatchingPaymentAdapter(stripeService, 100, Duration.ofMillis(5))) {
+ *     batching.submit("ORDER124", new BigDecimal("10.00")).join();
+ * }
+ *
+ * // adapters can be wrapped to shed load quickly when the provider degrades
+ * PaymentProcessor guarded = new RateLimitedPaymentProcessor(
+ *         new BulkheadPaymentProcessor(
+ *                 new CircuitBreakerPaymentProcessor(processor, 100, 0.5, 20, Duration.ofSeconds(10)),
+ *                 32),
+ *         500, 50);
+ *
+ * // several providers can be combined, routing each payment to the fastest healthy one
+ * PaymentProcessor routed = new RoutingPaymentProcessor(List.of(stripe, paypal, square), 64, 0.2, 0.25,
+ *         Duration.ofMillis(250));
  * }</pre>
  */
 public class AdapterPattern {
@@ -55,6 +95,98 @@ public class AdapterPattern {
          * @param amount The payment amount using BigDecimal for precision in financial calculations
          */
         void process(String id, BigDecimal amount);
+
+        /**
+         * Processes a payment transaction expressed in the currency's minor units, such as cents.
+         * <p>
+         *
+         * The default implementation converts the amount to a {@link BigDecimal} exactly and delegates to
+         * {@link #process(String, BigDecimal)}. Processors whose provider accepts minor units directly should override
+         * this so the call does not allocate.
+         *
+         * @param id The unique transaction identifier
+         * @param minorUnits The payment amount in minor units of the currency
+         * @param currency The currency of the payment
+         */
+        default void process(String id, long minorUnits, Currency currency) {
+            process(id, BigDecimal.valueOf(minorUnits, Money.fractionDigits(currency)));
+        }
+
+        /**
+         * Processes a payment transaction expressed as {@link Money}.
+         *
+         * @param id The unique transaction identifier
+         * @param amount The payment amount and currency
+         */
+        default void process(String id, Money amount) {
+            process(id, amount.minorUnits(), amount.currency());
+        }
+    }
+
+    /**
+     * Represents an exact monetary amount as a count of the currency's minor units, such as cents for USD.
+     * <p>
+     *
+     * Unlike {@code double}, every amount is represented exactly, and unlike {@link BigDecimal}, arithmetic on the
+     * underlying {@code long} does not allocate. Conversion to and from {@link BigDecimal} is exact and is intended
+     * for the edges of the system only.
+     *
+     * @param minorUnits The amount in minor units of the currency
+     * @param currency The currency of the amount
+     */
+    record Money(long minorUnits, Currency currency) {
+        private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L};
+
+        Money {
+            fractionDigits(requireNonNull(currency, "currency cannot be null"));
+        }
+
+        /**
+         * Converts a decimal amount into minor units without rounding.
+         *
+         * @param amount The decimal amount, such as 99.99
+         * @param currency The currency of the amount
+         * @return the exact amount in minor units
+         * @throws ArithmeticException if the amount has more decimal places than the currency allows, or overflows
+         */
+        static Money of(BigDecimal amount, Currency currency) {
+            final BigDecimal scaled = amount.setScale(fractionDigits(currency), RoundingMode.UNNECESSARY);
+            return new Money(scaled.unscaledValue().longValueExact(), currency);
+        }
+
+        /**
+         * Converts this amount back into a decimal value without rounding.
+         *
+         * @return the exact decimal amount, scaled to the currency's number of decimal places
+         */
+        BigDecimal toBigDecimal() {
+            return BigDecimal.valueOf(minorUnits, fractionDigits(currency));
+        }
+
+        /**
+         * Returns the number of decimal places of the currency's minor unit.
+         *
+         * @param currency The currency to inspect
+         * @return the number of decimal places, such as 2 for USD or 0 for JPY
+         * @throws IllegalArgumentException if the currency has no minor unit, such as gold or test currencies
+         */
+        static int fractionDigits(Currency currency) {
+            final int digits = currency.getDefaultFractionDigits();
+            if (digits < 0 || digits >= POWERS_OF_TEN.length) {
+                throw new IllegalArgumentException("unsupported currency: " + currency);
+            }
+            return digits;
+        }
+
+        /**
+         * Returns the number of minor units in one major unit of the currency.
+         *
+         * @param currency The currency to inspect
+         * @return the scale factor, such as 100 for USD or 1 for JPY
+         */
+        static long unitsPerMajor(Currency currency) {
+            return POWERS_OF_TEN[fractionDigits(currency)];
+        }
     }
 
     /**
@@ -69,8 +201,44 @@ public class AdapterPattern {
          * @param total The payment amount as a double
          */
         void create(String id, double total);
+
+        /**
+         * Creates a payment charge using Stripe's native representation of an integer amount in minor units.
+         * <p>
+         *
+         * The default implementation falls back to {@link #create(String, double)} for services without this form.
+         *
+         * @param id The transaction identifier
+         * @param amount The payment amount in minor units of the currency
+         * @param currency The currency of the payment
+         */
+        default void create(String id, long amount, Currency currency) {
+            create(id, (double) amount / Money.unitsPerMajor(currency));
+        }
+
+        /**
+         * Creates several payment charges in a single call using Stripe's bulk API.
+         * <p>
+         *
+         * The default implementation creates each charge in turn, for services without a bulk endpoint.
+         *
+         * @param charges The charges to create
+         */
+        default void createAll(List<Charge> charges) {
+            for (Charge charge : charges) {
+                create(charge.id(), charge.total());
+            }
+        }
     }
 
+    /**
+     * A single charge in Stripe's representation, as submitted through {@link StripeService#createAll(List)}.
+     *
+     * @param id The transaction identifier
+     * @param total The payment amount as a double
+     */
+    record Charge(String id, double total) { }
+
     /**
      * Represents the adapter class that bridges the gap between the {@link PaymentProcessor} and {@link StripeService}.
      * <p>
@@ -119,5 +287,739 @@ public class AdapterPattern {
         public void process(String id, BigDecimal amount) {
             service.create(id, amount.doubleValue());
         }
+
+        /**
+         * Adapts the {@link PaymentProcessor#process(String, long, Currency)} call to Stripe's minor unit form,
+         * passing the amount through without any conversion or allocation.
+         *
+         * @param id The unique transaction identifier
+         * @param minorUnits The payment amount in minor units of the currency
+         * @param currency The currency of the payment
+         */
+        @Override
+        public void process(String id, long minorUnits, Currency currency) {
+            service.create(id, minorUnits, currency);
+        }
+    }
+
+    /**
+     * Represents an adapter that coalesces payments into bulk {@link StripeService#createAll(List)} calls.
+     * <p>
+     *
+     * Payments are buffered until either {@code maxBatchSize} are waiting or the oldest has waited {@code maxDelay},
+     * then sent in one provider call. A full batch is sent on the submitting thread, while a partial batch is sent by
+     * a background timer. Every payment gets its own future, completed when its batch is accepted or failed with the
+     * exception raised by the provider.
+     * <p>
+     *
+     * {@link #process(String, BigDecimal)} blocks until the payment's batch is sent, so callers that can continue
+     * without waiting should use {@link #submit(String, BigDecimal)} instead.
+     */
+    class BatchingPaymentAdapter implements PaymentProcessor, AutoCloseable {
+        /**
+         * A buffered charge and the future handed to its submitter.
+         */
+        private record Pending(Charge charge, CompletableFuture<Void> completion) { }
+
+        private final StripeService service;
+        private final int maxBatchSize;
+        private final long maxDelayNanos;
+        private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "payment-batch-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        private List<Pending> buffer;
+        private ScheduledFuture<?> scheduledFlush;
+        private boolean closed;
+
+        /**
+         * Constructor injection of the {@link StripeService} dependency and the batching limits.
+         *
+         * @param service The {@link StripeService} implementation to adapt
+         * @param maxBatchSize The number of buffered payments that triggers an immediate send
+         * @param maxDelay The longest time a payment waits in the buffer before its batch is sent
+         * @throws IllegalArgumentException if the batch size or delay is not positive
+         */
+        BatchingPaymentAdapter(StripeService service, int maxBatchSize, Duration maxDelay) {
+            if (maxBatchSize <= 0 || maxDelay.isNegative() || maxDelay.isZero()) {
+                throw new IllegalArgumentException("batch size and delay must be positive");
+            }
+            this.service = requireNonNull(service, "stripe service cannot be null");
+            this.maxBatchSize = maxBatchSize;
+            this.maxDelayNanos = maxDelay.toNanos();
+            this.buffer = new ArrayList<>(maxBatchSize);
+        }
+
+        /**
+         * Submits a payment and waits until the batch containing it has been sent.
+         *
+         * @param id The unique transaction identifier
+         * @param amount The payment amount - converted from BigDecimal to double
+         */
+        @Override
+        public void process(String id, BigDecimal amount) {
+            submit(id, amount).join();
+        }
+
+        /**
+         * Buffers a payment for the next batch without waiting for it to be sent.
+         *
+         * @param id The unique transaction identifier
+         * @param amount The payment amount - converted from BigDecimal to double
+         * @return a future completed once the payment's batch has been accepted by the provider
+         * @throws IllegalStateException if the adapter has been closed
+         */
+        public CompletableFuture<Void> submit(String id, BigDecimal amount) {
+            final Pending pending = new Pending(new Charge(id, amount.doubleValue()), new CompletableFuture<>());
+            List<Pending> ready = null;
+
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("batching adapter is closed");
+                }
+
+                buffer.add(pending);
+                if (buffer.size() >= maxBatchSize) {
+                    ready = drain();
+                } else if (buffer.size() == 1) {
+                    scheduledFlush = timer.schedule(this::flush, maxDelayNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            if (ready != null) {
+                send(ready);
+            }
+            return pending.completion();
+        }
+
+        /**
+         * Sends all currently buffered payments immediately.
+         */
+        public void flush() {
+            final List<Pending> ready;
+            synchronized (this) {
+                ready = drain();
+            }
+            send(ready);
+        }
+
+        /**
+         * Sends any buffered payments and stops the background timer. Further submissions are rejected.
+         */
+        @Override
+        public void close() {
+            synchronized (this) {
+                closed = true;
+            }
+            flush();
+            timer.shutdown();
+        }
+
+        private List<Pending> drain() {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+
+            final List<Pending> ready = buffer;
+            buffer = new ArrayList<>(maxBatchSize);
+            return ready;
+        }
+
+        private void send(List<Pending> batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            final List<Charge> charges = new ArrayList<>(batch.size());
+            for (Pending pending : batch) {
+                charges.add(pending.charge());
+            }
+
+            try {
+                service.createAll(charges);
+            } catch (RuntimeException ex) {
+                batch.forEach(pending -> pending.completion().completeExceptionally(ex));
+                return;
+            }
+            batch.forEach(pending -> pending.completion().complete(null));
+        }
+    }
+
+    /**
+     * Represents a base for wrappers that guard another {@link PaymentProcessor}, rejecting calls before they reach it.
+     * <p>
+     *
+     * Subclasses decide in {@link #admit()} whether a call may proceed, throwing {@link RejectedExecutionException} to
+     * shed it immediately, and are told the outcome of every admitted call through {@link #complete(Object, boolean)},
+     * together with the token {@code admit()} returned for that call. Both payment forms are forwarded unchanged, so
+     * the minor unit path stays allocation free.
+     */
+    abstract class GuardedPaymentProcessor implements PaymentProcessor {
+        protected final PaymentProcessor delegate;
+
+        /**
+         * Constructor injection of the guarded {@link PaymentProcessor}.
+         *
+         * @param delegate The processor to guard
+         */
+        GuardedPaymentProcessor(PaymentProcessor delegate) {
+            this.delegate = requireNonNull(delegate, "payment processor cannot be null");
+        }
+
+        @Override
+        public final void process(String id, BigDecimal amount) {
+            final Object token = admit();
+            boolean success = false;
+            try {
+                delegate.process(id, amount);
+                success = true;
+            } finally {
+                complete(token, success);
+            }
+        }
+
+        @Override
+        public final void process(String id, long minorUnits, Currency currency) {
+            final Object token = admit();
+            boolean success = false;
+            try {
+                delegate.process(id, minorUnits, currency);
+                success = true;
+            } finally {
+                complete(token, success);
+            }
+        }
+
+        /**
+         * Decides whether a call may proceed to the guarded processor.
+         *
+         * @return a token identifying the admitted call, handed back to {@link #complete(Object, boolean)}, or null
+         * @throws RejectedExecutionException if the call is shed
+         */
+        protected abstract Object admit();
+
+        /**
+         * Records the outcome of an admitted call.
+         *
+         * @param token The token {@link #admit()} returned for the call
+         * @param success Whether the guarded processor completed without an exception
+         */
+        protected void complete(Object token, boolean success) { }
+    }
+
+    /**
+     * Represents a lock-free token bucket rate limiter in front of a {@link PaymentProcessor}.
+     * <p>
+     *
+     * The bucket is tracked as the generic cell rate algorithm: a single {@link AtomicLong} holds the theoretical time
+     * at which the bucket will be full again, and each call advances it by one emission interval with a compare and
+     * set. A call that would push it more than the burst capacity into the future is rejected.
+     */
+    class RateLimitedPaymentProcessor extends GuardedPaymentProcessor {
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+        private final LongAdder permitted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        /**
+         * Constructs a rate limiter that refills at a steady rate and absorbs short bursts.
+         *
+         * @param delegate The processor to guard
+         * @param permitsPerSecond The sustained number of calls allowed per second
+         * @param burst The number of calls that may be made back to back when the bucket is full
+         * @throws IllegalArgumentException if the rate or burst is not positive
+         */
+        RateLimitedPaymentProcessor(PaymentProcessor delegate, double permitsPerSecond, int burst) {
+            super(delegate);
+            if (permitsPerSecond <= 0 || burst <= 0) {
+                throw new IllegalArgumentException("rate and burst must be positive");
+            }
+            this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+            this.toleranceNanos = intervalNanos * (burst - 1);
+        }
+
+        @Override
+        protected Object admit() {
+            while (true) {
+                final long now = System.nanoTime();
+                final long current = theoreticalArrival.get();
+                final long start = current - now < 0 ? now : current;
+                if (start - now > toleranceNanos) {
+                    rejected.increment();
+                    throw new RejectedExecutionException("payment rate limit exceeded");
+                }
+                if (theoreticalArrival.compareAndSet(current, start + intervalNanos)) {
+                    permitted.increment();
+                    return null;
+                }
+            }
+        }
+
+        /**
+         * Returns the number of calls let through to the guarded processor.
+         *
+         * @return the number of calls let through to the guarded processor
+         */
+        public long permittedCount() {
+            return permitted.sum();
+        }
+
+        /**
+         * Returns the number of calls rejected without reaching the guarded processor.
+         *
+         * @return the number of calls rejected without reaching the guarded processor
+         */
+        public long rejectedCount() {
+            return rejected.sum();
+        }
+    }
+
+    /**
+     * Represents a bulkhead that caps the number of concurrent calls to a {@link PaymentProcessor}.
+     * <p>
+     *
+     * Calls beyond the limit are rejected at once instead of queuing, so a slow provider cannot tie up every caller.
+     */
+    class BulkheadPaymentProcessor extends GuardedPaymentProcessor {
+        private final int maxConcurrent;
+        private final Semaphore permits;
+        private final LongAdder permitted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        /**
+         * Constructs a bulkhead with the given concurrency limit.
+         *
+         * @param delegate The processor to guard
+         * @param maxConcurrent The maximum number of calls in flight at once
+         * @throws IllegalArgumentException if the limit is not positive
+         */
+        BulkheadPaymentProcessor(PaymentProcessor delegate, int maxConcurrent) {
+            super(delegate);
+            if (maxConcurrent <= 0) {
+                throw new IllegalArgumentException("maxConcurrent must be positive");
+            }
+            this.maxConcurrent = maxConcurrent;
+            this.permits = new Semaphore(maxConcurrent);
+        }
+
+        @Override
+        protected Object admit() {
+            if (!permits.tryAcquire()) {
+                rejected.increment();
+                throw new RejectedExecutionException("payment bulkhead is full");
+            }
+            permitted.increment();
+            return null;
+        }
+
+        @Override
+        protected void complete(Object token, boolean success) {
+            permits.release();
+        }
+
+        /**
+         * Returns the number of calls let through to the guarded processor.
+         *
+         * @return the number of calls let through to the guarded processor
+         */
+        public long permittedCount() {
+            return permitted.sum();
+        }
+
+        /**
+         * Returns the number of calls rejected without reaching the guarded processor.
+         *
+         * @return the number of calls rejected without reaching the guarded processor
+         */
+        public long rejectedCount() {
+            return rejected.sum();
+        }
+
+        /**
+         * Returns the number of calls currently running against the guarded processor.
+         *
+         * @return the number of calls currently running against the guarded processor
+         */
+        public int inFlight() {
+            return maxConcurrent - permits.availablePermits();
+        }
+    }
+
+    /**
+     * Represents a circuit breaker that stops calling a {@link PaymentProcessor} while it keeps failing.
+     * <p>
+     *
+     * The outcomes of the last {@code windowSize} calls are kept in a ring. Once at least {@code minimumCalls} are
+     * recorded and the share of failures reaches {@code failureThreshold}, the breaker opens and rejects every call
+     * for {@code openDuration}. It then lets a single trial call through: success closes the breaker with an empty
+     * window, failure opens it again.
+     */
+    class CircuitBreakerPaymentProcessor extends GuardedPaymentProcessor {
+        /**
+         * The states of the circuit breaker.
+         */
+        enum State { CLOSED, OPEN, HALF_OPEN }
+
+        private final boolean[] outcomes;
+        private final double failureThreshold;
+        private final int minimumCalls;
+        private final long openNanos;
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        private State state = State.CLOSED;
+        private long openedAt;
+        private Object trial;
+        private int next;
+        private int recorded;
+        private int failures;
+
+        /**
+         * Constructs a closed circuit breaker.
+         *
+         * @param delegate The processor to guard
+         * @param windowSize The number of most recent calls the failure rate is computed over
+         * @param failureThreshold The share of failed calls, between 0 and 1, that opens the breaker
+         * @param minimumCalls The number of recorded calls needed before the breaker may open
+         * @param openDuration How long the breaker rejects calls before allowing a trial call
+         * @throws IllegalArgumentException if any limit is out of range
+         */
+        CircuitBreakerPaymentProcessor(PaymentProcessor delegate, int windowSize, double failureThreshold,
+                                       int minimumCalls, Duration openDuration) {
+            super(delegate);
+            if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize
+                    || failureThreshold <= 0 || failureThreshold > 1) {
+                throw new IllegalArgumentException("invalid circuit breaker configuration");
+            }
+            this.outcomes = new boolean[windowSize];
+            this.failureThreshold = failureThreshold;
+            this.minimumCalls = minimumCalls;
+            this.openNanos = openDuration.toNanos();
+        }
+
+        /**
+         * Admits a call, unless the breaker is open or a trial call is already running.
+         *
+         * @return a fresh token for the single trial call allowed while half open, or null for any other call
+         * @throws RejectedExecutionException if the breaker is open or its trial call is still running
+         */
+        @Override
+        protected synchronized Object admit() {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+                state = State.HALF_OPEN;
+            }
+            if (state == State.OPEN || (state == State.HALF_OPEN && trial != null)) {
+                rejected.increment();
+                throw new RejectedExecutionException("payment circuit breaker is open");
+            }
+            if (state == State.HALF_OPEN) {
+                trial = new Object();
+                return trial;
+            }
+            return null;
+        }
+
+        /**
+         * Records an outcome. Only the trial call decides whether a half open breaker closes or opens again; calls
+         * admitted earlier, while the breaker was closed, are counted but otherwise ignored unless it is closed.
+         */
+        @Override
+        protected synchronized void complete(Object token, boolean success) {
+            (success ? succeeded : failed).increment();
+
+            if (token != null && token == trial) {
+                trial = null;
+                if (success) {
+                    state = State.CLOSED;
+                    next = recorded = failures = 0;
+                } else {
+                    open();
+                }
+                return;
+            }
+            if (state != State.CLOSED) {
+                return;
+            }
+
+            if (recorded == outcomes.length) {
+                failures -= outcomes[next] ? 0 : 1;
+            } else {
+                recorded++;
+            }
+            outcomes[next] = success;
+            failures += success ? 0 : 1;
+            next = (next + 1) % outcomes.length;
+
+            if (recorded >= minimumCalls && failures >= failureThreshold * recorded) {
+                open();
+            }
+        }
+
+        private void open() {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+
+        /**
+         * Returns the current state of the breaker.
+         *
+         * @return the current state of the breaker
+         */
+        public synchronized State state() {
+            return state;
+        }
+
+        /**
+         * Returns the number of admitted calls that completed successfully.
+         *
+         * @return the number of admitted calls that completed successfully
+         */
+        public long succeededCount() {
+            return succeeded.sum();
+        }
+
+        /**
+         * Returns the number of admitted calls that failed.
+         *
+         * @return the number of admitted calls that failed
+         */
+        public long failedCount() {
+            return failed.sum();
+        }
+
+        /**
+         * Returns the number of calls rejected without reaching the guarded processor.
+         *
+         * @return the number of calls rejected without reaching the guarded processor
+         */
+        public long rejectedCount() {
+            return rejected.sum();
+        }
+    }
+
+    /**
+     * Represents a processor that routes each payment to the fastest healthy of several provider adapters.
+     * <p>
+     *
+     * Every call updates the provider's exponentially weighted moving averages of latency and error rate. A provider
+     * is healthy while its error rate is below {@code maxErrorRate}, and each payment goes to the healthy provider with
+     * the lowest average latency that is below its concurrency limit. When no healthy provider has capacity, the one
+     * with the lowest error rate is tried. The error rate also decays over time, halving every {@code errorHalfLife}
+     * without calls, so an unhealthy provider that gets no traffic becomes healthy again and receives a call that
+     * acts as a probe: if it still fails, its error rate climbs back over the limit.
+     * <p>
+     *
+     * If a call has not finished after {@code hedgeDelay}, the same payment is also sent to the next best provider and
+     * the first success wins. Hedging is only safe when providers deduplicate charges by transaction id, as with
+     * Stripe idempotency keys; pass a zero delay to disable it.
+     */
+    class RoutingPaymentProcessor implements PaymentProcessor {
+        private static final ThreadFactory VIRTUAL_THREADS = Thread.ofVirtual().name("payment-route-", 0).factory();
+
+        /**
+         * A provider with its concurrency limit and recent latency and error statistics.
+         */
+        private final class Route {
+            private final PaymentProcessor processor;
+            private final Semaphore permits;
+            private volatile double latencyNanos;
+            private volatile double errorRate;
+            private volatile long updatedNanos = System.nanoTime();
+
+            private Route(PaymentProcessor processor, int maxConcurrent) {
+                this.processor = requireNonNull(processor, "payment processor cannot be null");
+                this.permits = new Semaphore(maxConcurrent);
+            }
+
+            private synchronized void record(long nanos, boolean success) {
+                final long now = System.nanoTime();
+                final double decayed = errorRate(now);
+                latencyNanos += smoothing * (nanos - latencyNanos);
+                errorRate = decayed + smoothing * ((success ? 0 : 1) - decayed);
+                updatedNanos = now;
+            }
+
+            /**
+             * Returns the error rate decayed by the time since it was last updated.
+             */
+            private double errorRate(long now) {
+                return errorRate * Math.pow(0.5, (now - updatedNanos) / errorHalfLifeNanos);
+            }
+        }
+
+        private final List<Route> routes;
+        private final double smoothing;
+        private final double maxErrorRate;
+        private final double errorHalfLifeNanos;
+        private final long hedgeDelayNanos;
+        private final Executor executor = command -> VIRTUAL_THREADS.newThread(command).start();
+
+        /**
+         * Constructs a routing processor over the given provider adapters.
+         *
+         * @param providers The provider adapters to route between
+         * @param maxConcurrentPerProvider The maximum number of calls in flight against each provider
+         * @param smoothing The weight, between 0 and 1, of each new observation in the moving averages
+         * @param maxErrorRate The error rate at or above which a provider is considered unhealthy
+         * @param hedgeDelay How long to wait for a call before hedging it on another provider, or zero to never hedge
+         * @throws IllegalArgumentException if no providers are given or any limit is out of range
+         */
+        RoutingPaymentProcessor(List<? extends PaymentProcessor> providers, int maxConcurrentPerProvider,
+                                double smoothing, double maxErrorRate, Duration hedgeDelay) {
+            this(providers, maxConcurrentPerProvider, smoothing, maxErrorRate, hedgeDelay, Duration.ofSeconds(30));
+        }
+
+        /**
+         * Constructs a routing processor over the given provider adapters.
+         *
+         * @param providers The provider adapters to route between
+         * @param maxConcurrentPerProvider The maximum number of calls in flight against each provider
+         * @param smoothing The weight, between 0 and 1, of each new observation in the moving averages
+         * @param maxErrorRate The error rate at or above which a provider is considered unhealthy
+         * @param hedgeDelay How long to wait for a call before hedging it on another provider, or zero to never hedge
+         * @param errorHalfLife How long it takes a provider's error rate to halve while it receives no calls
+         * @throws IllegalArgumentException if no providers are given or any limit is out of range
+         */
+        RoutingPaymentProcessor(List<? extends PaymentProcessor> providers, int maxConcurrentPerProvider,
+                                double smoothing, double maxErrorRate, Duration hedgeDelay, Duration errorHalfLife) {
+            if (providers.isEmpty() || maxConcurrentPerProvider <= 0 || smoothing <= 0 || smoothing > 1
+                    || maxErrorRate <= 0 || hedgeDelay.isNegative() || errorHalfLife.isNegative()
+                    || errorHalfLife.isZero()) {
+                throw new IllegalArgumentException("invalid routing configuration");
+            }
+            this.routes = providers.stream().map(provider -> new Route(provider, maxConcurrentPerProvider)).toList();
+            this.smoothing = smoothing;
+            this.maxErrorRate = maxErrorRate;
+            this.errorHalfLifeNanos = errorHalfLife.toNanos();
+            this.hedgeDelayNanos = hedgeDelay.toNanos();
+        }
+
+        @Override
+        public void process(String id, BigDecimal amount) {
+            route(provider -> provider.process(id, amount));
+        }
+
+        @Override
+        public void process(String id, long minorUnits, Currency currency) {
+            route(provider -> provider.process(id, minorUnits, currency));
+        }
+
+        private void route(Consumer<PaymentProcessor> call) {
+            final Route primary = acquire(null);
+            if (primary == null) {
+                throw new RejectedExecutionException("all payment providers are at capacity");
+            }
+            if (hedgeDelayNanos == 0) {
+                invoke(primary, call);
+                return;
+            }
+
+            final CompletableFuture<Void> first = CompletableFuture.runAsync(() -> invoke(primary, call), executor);
+            try {
+                first.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+                return;
+            } catch (ExecutionException ex) {
+                throw propagate(ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for payment", ex);
+            } catch (TimeoutException ignored) {
+                // the primary is slow, so race it against the next best provider
+            }
+
+            final Route backup = acquire(primary);
+            final CompletableFuture<Void> winner = backup == null
+                    ? first
+                    : firstSuccess(first, CompletableFuture.runAsync(() -> invoke(backup, call), executor));
+            try {
+                winner.join();
+            } catch (CompletionException ex) {
+                throw propagate(ex.getCause());
+            }
+        }
+
+        /**
+         * Picks and reserves capacity on the best provider, other than {@code excluded}, or returns null if none has
+         * capacity.
+         */
+        private Route acquire(Route excluded) {
+            final long now = System.nanoTime();
+            Route fallback = null;
+            double fallbackErrorRate = Double.MAX_VALUE;
+            while (true) {
+                Route best = null;
+                for (Route route : routes) {
+                    if (route == excluded || route.permits.availablePermits() == 0) {
+                        continue;
+                    }
+                    final double errorRate = route.errorRate(now);
+                    if (errorRate < maxErrorRate) {
+                        if (best == null || route.latencyNanos < best.latencyNanos) {
+                            best = route;
+                        }
+                    } else if (errorRate < fallbackErrorRate) {
+                        fallback = route;
+                        fallbackErrorRate = errorRate;
+                    }
+                }
+
+                final Route chosen = best != null ? best : fallback;
+                if (chosen == null) {
+                    return null;
+                }
+                if (chosen.permits.tryAcquire()) {
+                    return chosen;
+                }
+                // lost the race for the last permit, so rank the providers again
+                fallback = null;
+                fallbackErrorRate = Double.MAX_VALUE;
+            }
+        }
+
+        private void invoke(Route route, Consumer<PaymentProcessor> call) {
+            final long start = System.nanoTime();
+            boolean success = false;
+            try {
+                call.accept(route.processor);
+                success = true;
+            } finally {
+                route.record(System.nanoTime() - start, success);
+                route.permits.release();
+            }
+        }
+
+        private static CompletableFuture<Void> firstSuccess(CompletableFuture<Void> first,
+                                                            CompletableFuture<Void> second) {
+            final CompletableFuture<Void> winner = new CompletableFuture<>();
+            final AtomicInteger remaining = new AtomicInteger(2);
+            for (CompletableFuture<Void> attempt : List.of(first, second)) {
+                attempt.whenComplete((ignored, failure) -> {
+                    if (failure == null) {
+                        winner.complete(null);
+                    } else if (remaining.decrementAndGet() == 0) {
+                        winner.completeExceptionally(failure);
+                    }
+                });
+            }
+            return winner;
+        }
+
+        private static RuntimeException propagate(Throwable failure) {
+            final Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause()
+                    : failure;
+            if (cause instanceof RuntimeException ex) {
+                return ex;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            return new CompletionException(cause);
+        }
     }
 }
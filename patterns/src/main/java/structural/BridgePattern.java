@@ -1,5 +1,32 @@
 package structural;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
 /**
  * This class demonstrates the bridge structural design pattern, which separates an abstraction from implementation,
  * allowing both to vary independently.
@@ -28,6 +55,17 @@ package structural;
  *
  * database.createTable("users");
  * database.dropTable("users");
+ *
+ * // drivers can also be pooled so connections are reused across operations
+ * var pool = new DriverPool(MySQLDriver::new, 2, 8, Duration.ofMinutes(5), Duration.ofSeconds(30), driver -> true);
+ * var pooled = new Database(pool);
+ *
+ * // many operations can be submitted at once, with independent tables running on separate connections
+ * var results = pooled.executeBatch(List.of(DdlOperation.create("users"), DdlOperation.create("orders")), 4);
+ *
+ * // or issued without blocking, running up to 16 driver calls at once on virtual threads
+ * var async = new AsyncDatabase(new VirtualThreadDriverAdapter(driver, 16));
+ * async.executeAll(List.of(DdlOperation.create("users"), DdlOperation.create("orders"))).join();
  * }
  */
 public class BridgePattern {
@@ -35,7 +73,11 @@ public class BridgePattern {
      * The abstraction providing a consistent API for interacting with a database.
      */
     class Database {
+        private static final ThreadFactory BATCH_THREADS = Thread.ofVirtual().name("database-batch-", 0).factory();
+
         private final DatabaseDriver driver;
+        private final DriverPool pool;
+        private final Executor executor = command -> BATCH_THREADS.newThread(command).start();
 
         /**
          * Constructor for the database abstraction, wrapping the specified driver.
@@ -44,6 +86,17 @@ public class BridgePattern {
          */
         public Database(DatabaseDriver driver) {
             this.driver = driver;
+            this.pool = null;
+        }
+
+        /**
+         * Constructor for the database abstraction, borrowing already connected drivers from the specified pool.
+         *
+         * @param pool the pool of connected database drivers to use for interacting with the database.
+         */
+        public Database(DriverPool pool) {
+            this.driver = null;
+            this.pool = requireNonNull(pool);
         }
 
         /**
@@ -52,9 +105,7 @@ public class BridgePattern {
          * @param tableName the name of the table to create or drop.
          */
         public void createTable(String tableName) {
-            driver.connect();
-            driver.createTable(tableName);
-            driver.disconnect();
+            execute(driver -> driver.createTable(tableName));
         }
 
         /**
@@ -63,8 +114,347 @@ public class BridgePattern {
          * @param tableName the name of the table to drop.
          */
         public void dropTable(String tableName) {
+            execute(driver -> driver.dropTable(tableName));
+        }
+
+        /**
+         * An API for running many DDL operations at once, returning one result per operation in submission order.
+         * <p>
+         *
+         * Operations on the same table keep their relative order, while operations on different tables are treated as
+         * independent. Independent groups are spread over up to {@code parallelism} pooled connections and run
+         * concurrently on virtual threads, with each connection receiving its share through
+         * {@link DatabaseDriver#executeBatch(List)}. Without a pool, the whole batch runs over a single connection and
+         * {@code parallelism} is ignored. Either way, if a connection cannot be obtained, each operation meant for it
+         * is reported as failed rather than the exception being thrown.
+         *
+         * @param operations  the operations to run.
+         * @param parallelism the maximum number of connections to use at once.
+         * @return the result of each operation, in the same order as {@code operations}.
+         */
+        public List<DdlResult> executeBatch(List<DdlOperation> operations, int parallelism) {
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("parallelism must be positive");
+            }
+            if (operations.isEmpty()) {
+                return List.of();
+            }
+            final DdlResult[] results = new DdlResult[operations.size()];
+            if (pool == null) {
+                final List<Integer> all = new ArrayList<>(operations.size());
+                for (int i = 0; i < operations.size(); i++) {
+                    all.add(i);
+                }
+                runSlice(operations, all, results);
+                return Arrays.asList(results);
+            }
+
+            // group by table so dependent operations stay ordered on one connection
+            final Map<String, List<Integer>> groups = new LinkedHashMap<>();
+            for (int i = 0; i < operations.size(); i++) {
+                groups.computeIfAbsent(operations.get(i).tableName(), table -> new ArrayList<>()).add(i);
+            }
+
+            final int connections = Math.min(parallelism, groups.size());
+            final List<List<Integer>> slices = new ArrayList<>(connections);
+            for (int i = 0; i < connections; i++) {
+                slices.add(new ArrayList<>());
+            }
+            int next = 0;
+            for (List<Integer> group : groups.values()) {
+                slices.get(next++ % connections).addAll(group);
+            }
+
+            final CompletableFuture<?>[] futures = new CompletableFuture<?>[connections];
+            for (int i = 0; i < connections; i++) {
+                final List<Integer> slice = slices.get(i);
+                futures[i] = CompletableFuture.runAsync(() -> runSlice(operations, slice, results), executor);
+            }
+            CompletableFuture.allOf(futures).join();
+            return Arrays.asList(results);
+        }
+
+        /**
+         * Runs one connection's share of a batch, recording a failure for each operation if no driver was available.
+         * A failure while handing the connection back after the batch ran keeps the results the driver reported.
+         */
+        private void runSlice(List<DdlOperation> operations, List<Integer> slice, DdlResult[] results) {
+            final List<DdlOperation> batch = new ArrayList<>(slice.size());
+            for (int index : slice) {
+                batch.add(operations.get(index));
+            }
+
+            final List<DdlResult> outcome = new ArrayList<>(batch.size());
+            try {
+                execute(connected -> outcome.addAll(runBatch(connected, batch)));
+            } catch (RuntimeException ex) {
+                if (outcome.isEmpty()) {
+                    batch.forEach(operation -> outcome.add(DdlResult.failure(operation, ex)));
+                }
+            }
+
+            for (int i = 0; i < slice.size(); i++) {
+                results[slice.get(i)] = outcome.get(i);
+            }
+        }
+
+        /**
+         * Delegates a batch to the driver, checking that it honored the one-result-per-operation contract.
+         */
+        private static List<DdlResult> runBatch(DatabaseDriver driver, List<DdlOperation> batch) {
+            final List<DdlResult> outcome = driver.executeBatch(batch);
+            if (outcome.size() != batch.size()) {
+                throw new IllegalStateException("driver returned " + outcome.size() + " results for "
+                        + batch.size() + " operations");
+            }
+            return outcome;
+        }
+
+        /**
+         * Runs an operation against a connected driver, either borrowed from the pool or connected just for the call.
+         *
+         * @param operation the operation to run.
+         */
+        private void execute(Consumer<DatabaseDriver> operation) {
+            if (pool == null) {
+                driver.connect();
+                try {
+                    operation.accept(driver);
+                } finally {
+                    driver.disconnect();
+                }
+                return;
+            }
+
+            final DatabaseDriver borrowed = pool.acquire();
+            try {
+                operation.accept(borrowed);
+            } finally {
+                pool.release(borrowed);
+            }
+        }
+    }
+
+    /**
+     * A pool of connected drivers that sits between the database abstraction and the driver implementations.
+     * <p>
+     *
+     * Each driver instance represents a single connection. The pool keeps at least {@code minSize} connected drivers
+     * and never hands out more than {@code maxSize} at once. Waiting callers are served in arrival order, and idle
+     * drivers are health checked before being reused.
+     * <p>
+     *
+     * A background task runs every half idle timeout, even when there is no traffic. It disconnects idle drivers above
+     * {@code minSize} once they have been idle for at least the idle timeout, so a driver may stay connected for up to
+     * one and a half timeouts. It also connects new drivers when health check failures have left the pool below
+     * {@code minSize}.
+     */
+    class DriverPool implements AutoCloseable {
+        /**
+         * An idle, connected driver and the time it was returned to the pool.
+         */
+        private record IdleDriver(DatabaseDriver driver, long idleSince) {}
+
+        private final Supplier<? extends DatabaseDriver> factory;
+        private final Predicate<DatabaseDriver> healthCheck;
+        private final int minSize;
+        private final long idleTimeoutNanos;
+        private final long acquireTimeoutNanos;
+        private final Semaphore permits;
+        private final Deque<IdleDriver> idle = new ArrayDeque<>();
+        private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "driver-pool-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private int open;
+        private boolean closed;
+
+        /**
+         * Constructs a new pool and eagerly connects {@code minSize} drivers.
+         *
+         * @param factory        creates new, unconnected drivers of any kind.
+         * @param minSize        the number of connected drivers to keep even when idle.
+         * @param maxSize        the maximum number of drivers that can be borrowed at once.
+         * @param idleTimeout    how long a driver above {@code minSize} must be idle before it may be disconnected.
+         * @param acquireTimeout how long {@link #acquire()} waits for a driver before failing.
+         * @param healthCheck    tests whether an idle driver is still usable before it is handed out.
+         * @throws IllegalArgumentException if the sizes are negative or {@code minSize} exceeds {@code maxSize}.
+         */
+        DriverPool(Supplier<? extends DatabaseDriver> factory, int minSize, int maxSize, Duration idleTimeout,
+                   Duration acquireTimeout, Predicate<DatabaseDriver> healthCheck) {
+            if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+                throw new IllegalArgumentException("pool sizes must satisfy 0 <= minSize <= maxSize and maxSize > 0");
+            }
+
+            this.factory = requireNonNull(factory);
+            this.healthCheck = requireNonNull(healthCheck);
+            this.minSize = minSize;
+            this.idleTimeoutNanos = idleTimeout.toNanos();
+            this.acquireTimeoutNanos = acquireTimeout.toNanos();
+            this.permits = new Semaphore(maxSize, true);
+
+            for (int i = 0; i < minSize; i++) {
+                idle.push(new IdleDriver(connect(), System.nanoTime()));
+            }
+
+            final long period = Math.max(idleTimeoutNanos / 2, TimeUnit.MILLISECONDS.toNanos(10));
+            maintenance.scheduleWithFixedDelay(this::maintain, period, period, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Borrows a connected driver, reusing the most recently returned healthy driver when one is available.
+         *
+         * @return a connected driver that must be handed back through {@link #release(DatabaseDriver)}.
+         * @throws IllegalStateException if the pool is closed, or no driver became available within the timeout.
+         */
+        public DatabaseDriver acquire() {
+            try {
+                if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                    throw new IllegalStateException("timed out waiting for a database driver");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for a database driver", ex);
+            }
+
+            try {
+                IdleDriver candidate;
+                while ((candidate = pollIdle()) != null) {
+                    final boolean healthy;
+                    try {
+                        healthy = healthCheck.test(candidate.driver());
+                    } catch (RuntimeException ex) {
+                        // a check that cannot tell is treated as failed, so the driver is not leaked
+                        discard(candidate.driver());
+                        throw ex;
+                    }
+                    if (healthy) {
+                        return candidate.driver();
+                    }
+                    discard(candidate.driver());
+                }
+                return connect();
+            } catch (RuntimeException ex) {
+                permits.release();
+                throw ex;
+            }
+        }
+
+        /**
+         * Returns a borrowed driver to the pool.
+         *
+         * @param driver the driver previously obtained from {@link #acquire()}.
+         */
+        public void release(DatabaseDriver driver) {
+            final boolean accepted;
+            synchronized (this) {
+                accepted = !closed;
+                if (accepted) {
+                    idle.push(new IdleDriver(driver, System.nanoTime()));
+                }
+            }
+
+            permits.release();
+            if (!accepted) {
+                discard(driver);
+            }
+        }
+
+        /**
+         * Disconnects drivers that have been idle longer than the idle timeout, keeping at least {@code minSize}.
+         */
+        public void evictIdle() {
+            final long now = System.nanoTime();
+            while (true) {
+                final IdleDriver expired;
+                synchronized (this) {
+                    final IdleDriver oldest = idle.peekLast();
+                    if (oldest == null || idle.size() <= minSize || now - oldest.idleSince() < idleTimeoutNanos) {
+                        return;
+                    }
+                    expired = idle.pollLast();
+                }
+                discard(expired.driver());
+            }
+        }
+
+        /**
+         * Connects new idle drivers until the pool holds {@code minSize} connected drivers, counting borrowed ones.
+         */
+        public void replenish() {
+            while (true) {
+                synchronized (this) {
+                    if (closed || open >= minSize) {
+                        return;
+                    }
+                }
+
+                final DatabaseDriver driver = connect();
+                final boolean accepted;
+                synchronized (this) {
+                    accepted = !closed;
+                    if (accepted) {
+                        idle.push(new IdleDriver(driver, System.nanoTime()));
+                    }
+                }
+                if (!accepted) {
+                    discard(driver);
+                }
+            }
+        }
+
+        /**
+         * Closes the pool, disconnecting all idle drivers. Drivers still borrowed are disconnected when released.
+         */
+        @Override
+        public void close() {
+            maintenance.shutdown();
+            final IdleDriver[] drained;
+            synchronized (this) {
+                closed = true;
+                drained = idle.toArray(IdleDriver[]::new);
+                idle.clear();
+            }
+
+            for (IdleDriver entry : drained) {
+                discard(entry.driver());
+            }
+        }
+
+        /**
+         * Runs on the maintenance thread. A failure to connect is left for the next run rather than thrown, which
+         * would cancel the schedule.
+         */
+        private void maintain() {
+            try {
+                evictIdle();
+                replenish();
+            } catch (RuntimeException ex) {
+                System.out.println("Driver pool maintenance failed: " + ex.getMessage());
+            }
+        }
+
+        private synchronized IdleDriver pollIdle() {
+            if (closed) {
+                throw new IllegalStateException("driver pool is closed");
+            }
+            return idle.poll();
+        }
+
+        private DatabaseDriver connect() {
+            final DatabaseDriver driver = factory.get();
             driver.connect();
-            driver.dropTable(tableName);
+            synchronized (this) {
+                open++;
+            }
+            return driver;
+        }
+
+        private void discard(DatabaseDriver driver) {
+            synchronized (this) {
+                open--;
+            }
             driver.disconnect();
         }
     }
@@ -96,6 +486,335 @@ public class BridgePattern {
          * @param tableName the name of the table to create.
          */
         void createTable(String tableName);
+
+        /**
+         * Runs several DDL operations over the current connection, returning one result per operation in order.
+         * <p>
+         *
+         * The default implementation runs each operation in turn and records failures without stopping the batch.
+         * Drivers for databases with a native batch or multi-statement API can override this to submit everything in
+         * a single round trip.
+         *
+         * @param operations the operations to run.
+         * @return the result of each operation, in the same order as {@code operations}.
+         */
+        default List<DdlResult> executeBatch(List<DdlOperation> operations) {
+            final List<DdlResult> results = new ArrayList<>(operations.size());
+            for (DdlOperation operation : operations) {
+                try {
+                    operation.applyTo(this);
+                    results.add(DdlResult.success(operation));
+                } catch (RuntimeException ex) {
+                    results.add(DdlResult.failure(operation, ex));
+                }
+            }
+            return results;
+        }
+    }
+
+    /**
+     * The non-blocking sibling of {@link DatabaseDriver}, whose calls return immediately with a future.
+     */
+    interface AsyncDatabaseDriver {
+        /**
+         * Connects to the database.
+         *
+         * @return a future completed once connected.
+         */
+        CompletableFuture<Void> connect();
+
+        /**
+         * Disconnects from the database.
+         *
+         * @return a future completed once disconnected.
+         */
+        CompletableFuture<Void> disconnect();
+
+        /**
+         * Drops the specified table from the database.
+         *
+         * @param tableName the name of the table to drop.
+         * @return a future completed once the table is dropped.
+         */
+        CompletableFuture<Void> dropTable(String tableName);
+
+        /**
+         * Creates a new table in the database.
+         *
+         * @param tableName the name of the table to create.
+         * @return a future completed once the table is created.
+         */
+        CompletableFuture<Void> createTable(String tableName);
+    }
+
+    /**
+     * An adapter that exposes any synchronous driver as an {@link AsyncDatabaseDriver} by running each call on its own
+     * virtual thread.
+     * <p>
+     *
+     * A blocked driver call only parks a virtual thread, so callers are never held up. At most {@code maxConcurrency}
+     * calls reach the wrapped driver at once; further calls wait in arrival order without occupying a platform
+     * thread. Use a limit of one for drivers that cannot serve concurrent calls over a single connection.
+     */
+    class VirtualThreadDriverAdapter implements AsyncDatabaseDriver {
+        private static final ThreadFactory VIRTUAL_THREADS = Thread.ofVirtual().name("database-driver-", 0).factory();
+
+        private final DatabaseDriver driver;
+        private final Semaphore permits;
+        private final Executor executor = command -> VIRTUAL_THREADS.newThread(command).start();
+
+        /**
+         * Constructs a new adapter around the specified driver.
+         *
+         * @param driver         the synchronous driver to adapt.
+         * @param maxConcurrency the maximum number of calls in flight against the driver.
+         */
+        VirtualThreadDriverAdapter(DatabaseDriver driver, int maxConcurrency) {
+            if (maxConcurrency <= 0) {
+                throw new IllegalArgumentException("maxConcurrency must be positive");
+            }
+            this.driver = requireNonNull(driver);
+            this.permits = new Semaphore(maxConcurrency, true);
+        }
+
+        @Override
+        public CompletableFuture<Void> connect() {
+            return run(driver::connect);
+        }
+
+        @Override
+        public CompletableFuture<Void> disconnect() {
+            return run(driver::disconnect);
+        }
+
+        @Override
+        public CompletableFuture<Void> dropTable(String tableName) {
+            return run(() -> driver.dropTable(tableName));
+        }
+
+        @Override
+        public CompletableFuture<Void> createTable(String tableName) {
+            return run(() -> driver.createTable(tableName));
+        }
+
+        private CompletableFuture<Void> run(Runnable call) {
+            return CompletableFuture.runAsync(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    call.run();
+                } finally {
+                    permits.release();
+                }
+            }, executor);
+        }
+    }
+
+    /**
+     * A refined abstraction over an {@link AsyncDatabaseDriver} for issuing many schema operations concurrently.
+     * <p>
+     *
+     * Concurrency against the backend is bounded by the driver itself, for example by the limit given to
+     * {@link VirtualThreadDriverAdapter}, so each backend can be tuned independently.
+     * <p>
+     *
+     * Concurrent calls share one connection: the first call to arrive connects the driver, and the last one to finish
+     * disconnects it, so no call disconnects the driver while another is still using it.
+     */
+    class AsyncDatabase {
+        private final AsyncDatabaseDriver driver;
+        private int users;
+        private CompletableFuture<Void> connection;
+        private CompletableFuture<Void> disconnection = CompletableFuture.completedFuture(null);
+
+        /**
+         * Constructor for the asynchronous database abstraction, wrapping the specified driver.
+         *
+         * @param driver the asynchronous driver to use for interacting with the database.
+         */
+        public AsyncDatabase(AsyncDatabaseDriver driver) {
+            this.driver = requireNonNull(driver);
+        }
+
+        /**
+         * An API for creating tables without blocking the caller.
+         *
+         * @param tableName the name of the table to create.
+         * @return a future completed once the table is created, or completed exceptionally if it could not be.
+         */
+        public CompletableFuture<Void> createTable(String tableName) {
+            return executeSingle(DdlOperation.create(tableName));
+        }
+
+        /**
+         * An API for dropping tables without blocking the caller.
+         *
+         * @param tableName the name of the table to drop.
+         * @return a future completed once the table is dropped, or completed exceptionally if it could not be.
+         */
+        public CompletableFuture<Void> dropTable(String tableName) {
+            return executeSingle(DdlOperation.drop(tableName));
+        }
+
+        /**
+         * An API for running many operations over one connection without blocking the caller.
+         * <p>
+         *
+         * Operations on the same table run in submission order, each starting after the previous one finished
+         * whether or not it failed. Operations on different tables are issued concurrently.
+         *
+         * @param operations the operations to run.
+         * @return a future of the result of each operation, in the same order as {@code operations}.
+         */
+        public CompletableFuture<List<DdlResult>> executeAll(List<DdlOperation> operations) {
+            if (operations.isEmpty()) {
+                return CompletableFuture.completedFuture(List.of());
+            }
+
+            final CompletableFuture<Void> connected = openConnection();
+            final Map<String, CompletableFuture<Void>> tails = new LinkedHashMap<>();
+            final List<CompletableFuture<DdlResult>> results = new ArrayList<>(operations.size());
+
+            for (DdlOperation operation : operations) {
+                final CompletableFuture<Void> previous = tails.get(operation.tableName());
+                final CompletableFuture<Void> start = previous == null
+                        ? connected
+                        : previous.handle((ignored, failure) -> null).thenCompose(ignored -> connected);
+                final CompletableFuture<Void> done = start.thenCompose(ignored -> operation.applyTo(driver));
+
+                tails.put(operation.tableName(), done);
+                results.add(done.handle((ignored, failure) -> failure == null
+                        ? DdlResult.success(operation)
+                        : DdlResult.failure(operation, unwrap(failure))));
+            }
+
+            return CompletableFuture.allOf(results.toArray(CompletableFuture<?>[]::new))
+                    .thenCompose(ignored -> closeConnection())
+                    .handle((ignored, failure) -> results.stream().map(CompletableFuture::join).toList());
+        }
+
+        /**
+         * Registers a user of the shared connection, connecting the driver if it is the first user or if the last
+         * attempt to connect failed. A new connection is only opened after any disconnect in progress has finished.
+         */
+        private synchronized CompletableFuture<Void> openConnection() {
+            if (users++ == 0 || connection.isCompletedExceptionally()) {
+                connection = disconnection
+                        .handle((ignored, failure) -> null)
+                        .thenCompose(ignored -> driver.connect());
+            }
+            return connection;
+        }
+
+        /**
+         * Unregisters a user of the shared connection, disconnecting the driver once the last user is done.
+         */
+        private synchronized CompletableFuture<Void> closeConnection() {
+            if (--users > 0) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            final CompletableFuture<Void> connected = connection;
+            connection = null;
+            disconnection = connected
+                    .handle((ignored, failure) -> failure == null)
+                    .thenCompose(wasConnected -> wasConnected
+                            ? driver.disconnect()
+                            : CompletableFuture.<Void>completedFuture(null));
+            return disconnection;
+        }
+
+        private CompletableFuture<Void> executeSingle(DdlOperation operation) {
+            return executeAll(List.of(operation)).thenApply(results -> {
+                final DdlResult result = results.get(0);
+                if (!result.succeeded()) {
+                    throw new CompletionException(result.failure());
+                }
+                return null;
+            });
+        }
+
+        private static Exception unwrap(Throwable failure) {
+            final Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause()
+                    : failure;
+            return cause instanceof Exception ex ? ex : new CompletionException(cause);
+        }
+    }
+
+    /**
+     * A single schema change that can be submitted as part of a batch.
+     *
+     * @param kind      whether the table is created or dropped.
+     * @param tableName the name of the table the operation applies to.
+     */
+    record DdlOperation(Kind kind, String tableName) {
+        /**
+         * The kinds of schema change supported by {@link DatabaseDriver}.
+         */
+        enum Kind { CREATE, DROP }
+
+        DdlOperation {
+            requireNonNull(kind);
+            requireNonNull(tableName);
+        }
+
+        static DdlOperation create(String tableName) {
+            return new DdlOperation(Kind.CREATE, tableName);
+        }
+
+        static DdlOperation drop(String tableName) {
+            return new DdlOperation(Kind.DROP, tableName);
+        }
+
+        /**
+         * Runs this operation against a connected driver.
+         *
+         * @param driver the driver to run the operation with.
+         */
+        void applyTo(DatabaseDriver driver) {
+            switch (kind) {
+                case CREATE -> driver.createTable(tableName);
+                case DROP -> driver.dropTable(tableName);
+            }
+        }
+
+        /**
+         * Starts this operation against a connected asynchronous driver.
+         *
+         * @param driver the driver to run the operation with.
+         * @return a future completed when the operation finishes.
+         */
+        CompletableFuture<Void> applyTo(AsyncDatabaseDriver driver) {
+            return switch (kind) {
+                case CREATE -> driver.createTable(tableName);
+                case DROP -> driver.dropTable(tableName);
+            };
+        }
+    }
+
+    /**
+     * The outcome of a single operation within a batch.
+     *
+     * @param operation the operation that was run.
+     * @param failure   the exception the operation failed with, or null if it succeeded.
+     */
+    record DdlResult(DdlOperation operation, Exception failure) {
+        static DdlResult success(DdlOperation operation) {
+            return new DdlResult(operation, null);
+        }
+
+        static DdlResult failure(DdlOperation operation, Exception failure) {
+            return new DdlResult(operation, requireNonNull(failure));
+        }
+
+        /**
+         * Returns whether the operation completed without an exception.
+         *
+         * @return true if the operation succeeded.
+         */
+        public boolean succeeded() {
+            return failure == null;
+        }
     }
 
     /**
@@ -172,4 +891,220 @@ public class BridgePattern {
             System.out.println("Creating table " + tableName + " in Oracle...");
         }
     }
+
+    /**
+     * An in-memory stand-in for a real driver, used to benchmark code built on the database abstraction offline.
+     * <p>
+     *
+     * Tables live in a concurrent catalog that can be shared by many driver instances, so a pool of these drivers
+     * behaves like many connections to one database. Each call sleeps for a configurable latency plus random jitter to
+     * approximate a particular backend, and the time spent in every call is recorded in a shared {@link DriverTimings}.
+     */
+    class InMemoryDriver implements DatabaseDriver {
+        private final Set<String> catalog;
+        private final LatencyProfile latency;
+        private final DriverTimings timings;
+        private volatile boolean connected;
+
+        /**
+         * Constructs a new in-memory driver.
+         *
+         * @param catalog the set of existing tables, typically from {@link ConcurrentHashMap#newKeySet()} and shared.
+         * @param latency the simulated latency of the backend.
+         * @param timings where the time spent in each call is recorded.
+         */
+        InMemoryDriver(Set<String> catalog, LatencyProfile latency, DriverTimings timings) {
+            this.catalog = requireNonNull(catalog);
+            this.latency = requireNonNull(latency);
+            this.timings = requireNonNull(timings);
+        }
+
+        @Override
+        public void connect() {
+            final long start = System.nanoTime();
+            latency.simulate(latency.connect());
+            connected = true;
+            timings.record(DriverTimings.Operation.CONNECT, System.nanoTime() - start);
+        }
+
+        @Override
+        public void disconnect() {
+            final long start = System.nanoTime();
+            connected = false;
+            timings.record(DriverTimings.Operation.DISCONNECT, System.nanoTime() - start);
+        }
+
+        @Override
+        public void dropTable(String tableName) {
+            final long start = System.nanoTime();
+            ensureConnected();
+            latency.simulate(latency.operation());
+            try {
+                if (!catalog.remove(tableName)) {
+                    throw new IllegalStateException("table " + tableName + " does not exist");
+                }
+            } finally {
+                timings.record(DriverTimings.Operation.DROP_TABLE, System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void createTable(String tableName) {
+            final long start = System.nanoTime();
+            ensureConnected();
+            latency.simulate(latency.operation());
+            try {
+                if (!catalog.add(tableName)) {
+                    throw new IllegalStateException("table " + tableName + " already exists");
+                }
+            } finally {
+                timings.record(DriverTimings.Operation.CREATE_TABLE, System.nanoTime() - start);
+            }
+        }
+
+        private void ensureConnected() {
+            if (!connected) {
+                throw new IllegalStateException("driver is not connected");
+            }
+        }
+    }
+
+    /**
+     * The simulated latency of a backend, applied by {@link InMemoryDriver}.
+     *
+     * @param connect   the base time taken to establish a connection.
+     * @param operation the base time taken by a single DDL operation.
+     * @param jitter    the maximum random delay added on top of each base time.
+     */
+    record LatencyProfile(Duration connect, Duration operation, Duration jitter) {
+        /** Approximates a local MySQL server. */
+        static final LatencyProfile MYSQL = new LatencyProfile(Duration.ofMillis(3), Duration.ofMillis(5),
+                Duration.ofMillis(2));
+        /** Approximates a local PostgreSQL server, whose connection setup forks a backend process. */
+        static final LatencyProfile POSTGRESQL = new LatencyProfile(Duration.ofMillis(8), Duration.ofMillis(4),
+                Duration.ofMillis(2));
+        /** Approximates an Oracle server, with comparatively expensive session setup. */
+        static final LatencyProfile ORACLE = new LatencyProfile(Duration.ofMillis(20), Duration.ofMillis(6),
+                Duration.ofMillis(4));
+        /** No simulated latency, for measuring the overhead of the calling code itself. */
+        static final LatencyProfile NONE = new LatencyProfile(Duration.ZERO, Duration.ZERO, Duration.ZERO);
+
+        /**
+         * Blocks the calling thread for the base time plus a uniformly random share of the jitter.
+         *
+         * @param base the base time to wait.
+         */
+        void simulate(Duration base) {
+            long nanos = base.toNanos();
+            if (!jitter.isZero()) {
+                nanos += ThreadLocalRandom.current().nextLong(jitter.toNanos() + 1);
+            }
+            if (nanos <= 0) {
+                return;
+            }
+
+            try {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted during simulated latency", ex);
+            }
+        }
+    }
+
+    /**
+     * Thread-safe counters of the number of calls and time spent per driver operation.
+     */
+    class DriverTimings {
+        /**
+         * The driver operations that are timed.
+         */
+        enum Operation { CONNECT, DISCONNECT, CREATE_TABLE, DROP_TABLE }
+
+        private final LongAdder[] counts = new LongAdder[Operation.values().length];
+        private final LongAdder[] totals = new LongAdder[Operation.values().length];
+        private final AtomicLong[] maximums = new AtomicLong[Operation.values().length];
+
+        DriverTimings() {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+                totals[i] = new LongAdder();
+                maximums[i] = new AtomicLong();
+            }
+        }
+
+        /**
+         * Records a single call of the operation.
+         *
+         * @param operation the operation that was called.
+         * @param nanos     the time the call took.
+         */
+        void record(Operation operation, long nanos) {
+            counts[operation.ordinal()].increment();
+            totals[operation.ordinal()].add(nanos);
+            maximums[operation.ordinal()].accumulateAndGet(nanos, Math::max);
+        }
+
+        /**
+         * Returns the number of recorded calls of the operation.
+         *
+         * @param operation the operation to report on.
+         * @return the number of recorded calls of the operation.
+         */
+        public long count(Operation operation) {
+            return counts[operation.ordinal()].sum();
+        }
+
+        /**
+         * Returns the total time spent in the operation, in nanoseconds.
+         *
+         * @param operation the operation to report on.
+         * @return the total time spent in the operation, in nanoseconds.
+         */
+        public long totalNanos(Operation operation) {
+            return totals[operation.ordinal()].sum();
+        }
+
+        /**
+         * Returns the longest single call of the operation, in nanoseconds.
+         *
+         * @param operation the operation to report on.
+         * @return the longest single call of the operation, in nanoseconds.
+         */
+        public long maxNanos(Operation operation) {
+            return maximums[operation.ordinal()].get();
+        }
+
+        /**
+         * Returns the average time per call of the operation, in nanoseconds.
+         *
+         * @param operation the operation to report on.
+         * @return the average time per call of the operation, in nanoseconds.
+         */
+        public double meanNanos(Operation operation) {
+            final long count = count(operation);
+            return count == 0 ? 0 : (double) totalNanos(operation) / count;
+        }
+
+        /**
+         * Clears all counters, for example between benchmark warm-up and measurement.
+         */
+        public void reset() {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i].reset();
+                totals[i].reset();
+                maximums[i].set(0);
+            }
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder summary = new StringBuilder();
+            for (Operation operation : Operation.values()) {
+                summary.append(String.format("%s: count=%d mean=%.0fns max=%dns%n", operation, count(operation),
+                        meanNanos(operation), maxNanos(operation)));
+            }
+            return summary.toString();
+        }
+    }
 }
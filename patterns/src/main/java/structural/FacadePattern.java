@@ -1,5 +1,7 @@
 package structural;
 
+import java.time.Duration;
+
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -117,6 +119,7 @@ class FacadePattern {
     class MessageQueueFacade {
         private final MessageQueue queue;
         private final MessageHandler handler;
+        private final MessageDeduplicator deduplicator;
 
         /**
          * Constructs a new {@link MessageQueueFacade} with the specified subsystem components.
@@ -128,6 +131,21 @@ class FacadePattern {
         MessageQueueFacade(MessageQueue queue, MessageHandler handler) {
             this.queue = requireNonNull(queue);
             this.handler = requireNonNull(handler);
+            this.deduplicator = null;
+        }
+
+        /**
+         * Constructs a new {@link MessageQueueFacade} that skips redelivered messages whose id was recently handled.
+         *
+         * @param queue        The message queue implementation to use
+         * @param handler      The message handler implementation to use
+         * @param deduplicator The index of recently handled message ids
+         * @throws IllegalArgumentException if any parameter is null
+         */
+        MessageQueueFacade(MessageQueue queue, MessageHandler handler, MessageDeduplicator deduplicator) {
+            this.queue = requireNonNull(queue);
+            this.handler = requireNonNull(handler);
+            this.deduplicator = requireNonNull(deduplicator);
         }
 
         /**
@@ -137,15 +155,27 @@ class FacadePattern {
          * <p>The method performs the following operations in sequence:</p>
          * <ol>
          *   <li>Retrieves the next message from the queue</li>
+         *   <li>Skips processing if the message id was recently handled (when deduplication is enabled)</li>
          *   <li>Processes the message using the handler</li>
          *   <li>Sends an acknowledgment of successful processing</li>
          *   <li>Handles any exceptions that occur during processing</li>
          * </ol>
+         *
+         * <p>A message id is only recorded once the handler succeeds, so a failed attempt is still retried when the
+         * message is redelivered. Duplicates are acknowledged again so the queue stops redelivering them.</p>
          */
         public void handleNextMessage() {
             try {
                 Message message = queue.getMessage();
+                if (deduplicator != null && deduplicator.contains(message.id())) {
+                    handler.sendAcknowledgment();
+                    return;
+                }
+
                 handler.handleMessage(message);
+                if (deduplicator != null) {
+                    deduplicator.add(message.id());
+                }
                 handler.sendAcknowledgment();
             } catch (Exception ignored) {
                 // Log message processing as failure
@@ -154,4 +184,108 @@ class FacadePattern {
             }
         }
     }
+
+    /**
+     * A time-bounded index of recently handled message ids with constant memory use.
+     * <p>
+     *
+     * Ids are reduced to 64-bit fingerprints and stored in a fixed-size, open-addressed table of primitive arrays, so
+     * no objects are allocated per message. Each id may only occupy one of a small window of slots starting at its
+     * home slot. When the window is full, the oldest entry in it is overwritten, which bounds memory at the cost of
+     * occasionally forgetting an id early. Entries older than the time-to-live are treated as absent.
+     * <p>
+     *
+     * Because fingerprints can collide, a distinct id is reported as seen with a probability of roughly
+     * {@code capacity / 2^64}. That is acceptable for skipping redeliveries but not for correctness-critical checks.
+     */
+    class MessageDeduplicator {
+        private static final int PROBE_WINDOW = 8;
+        private static final long EMPTY = 0L;
+
+        private final long[] fingerprints;
+        private final long[] timestamps;
+        private final int mask;
+        private final long ttlNanos;
+
+        /**
+         * Constructs a new {@link MessageDeduplicator}.
+         *
+         * @param capacity the number of ids to retain; the table is sized to at least twice this to keep probes short
+         * @param ttl      how long a handled id is remembered
+         * @throws IllegalArgumentException if the capacity or time-to-live is not positive
+         */
+        MessageDeduplicator(int capacity, Duration ttl) {
+            if (capacity <= 0 || capacity > 1 << 28) {
+                throw new IllegalArgumentException("capacity must be between 1 and 2^28");
+            }
+            if (ttl.isNegative() || ttl.isZero()) {
+                throw new IllegalArgumentException("ttl must be positive");
+            }
+
+            final int size = Math.max(PROBE_WINDOW, Integer.highestOneBit(capacity) << 2);
+            this.fingerprints = new long[size];
+            this.timestamps = new long[size];
+            this.mask = size - 1;
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        /**
+         * Returns whether the id was recorded within the time-to-live.
+         *
+         * @param id the message id
+         * @return true if the id was recently handled
+         */
+        public synchronized boolean contains(String id) {
+            final long fingerprint = fingerprint(id);
+            final long now = System.nanoTime();
+            int slot = (int) fingerprint & mask;
+
+            for (int i = 0; i < PROBE_WINDOW; i++, slot = (slot + 1) & mask) {
+                if (fingerprints[slot] == fingerprint && now - timestamps[slot] < ttlNanos) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Records the id as handled, replacing an expired or the oldest entry in its probe window if needed.
+         *
+         * @param id the message id
+         */
+        public synchronized void add(String id) {
+            final long fingerprint = fingerprint(id);
+            final long now = System.nanoTime();
+            int slot = (int) fingerprint & mask;
+            int victim = slot;
+
+            for (int i = 0; i < PROBE_WINDOW; i++, slot = (slot + 1) & mask) {
+                if (fingerprints[slot] == fingerprint || fingerprints[slot] == EMPTY
+                        || now - timestamps[slot] >= ttlNanos) {
+                    victim = slot;
+                    break;
+                }
+                if (timestamps[slot] - timestamps[victim] < 0) {
+                    victim = slot;
+                }
+            }
+
+            fingerprints[victim] = fingerprint;
+            timestamps[victim] = now;
+        }
+
+        /**
+         * Computes a well-mixed, non-zero 64-bit fingerprint of the id without allocating.
+         */
+        private static long fingerprint(String id) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < id.length(); i++) {
+                hash = (hash ^ id.charAt(i)) * 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash == EMPTY ? 1L : hash;
+        }
+    }
 }